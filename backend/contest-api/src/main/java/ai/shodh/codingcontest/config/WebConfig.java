@@ -0,0 +1,20 @@
+package ai.shodh.codingcontest.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final AdminTokenInterceptor adminTokenInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rejudges rewrite verdicts of many users, only admins may start, cancel or follow them
+        registry.addInterceptor(adminTokenInterceptor)
+            .addPathPatterns("/api/judge/rejudges", "/api/judge/rejudges/**");
+    }
+}
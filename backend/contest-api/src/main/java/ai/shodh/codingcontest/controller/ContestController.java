@@ -0,0 +1,113 @@
+package ai.shodh.codingcontest.controller;
+
+import ai.shodh.codingcontest.dto.ContestResponseDto;
+import ai.shodh.codingcontest.dto.LeaderboardPageDto;
+import ai.shodh.codingcontest.dto.UserProblemStatsDto;
+import ai.shodh.codingcontest.service.ContestService;
+import ai.shodh.codingcontest.service.leaderboard.LeaderboardSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/contests")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class ContestController {
+    
+    private final ContestService contestService;
+    
+    @GetMapping("/{contestId}")
+    public ResponseEntity<ContestResponseDto> getContest(@PathVariable Long contestId) {
+        log.info("Getting contest with id: {}", contestId);
+        ContestResponseDto contest = contestService.getContestById(contestId);
+        return ResponseEntity.ok(contest);
+    }
+    
+    /**
+     * Full leaderboard as a JSON array, from a versioned snapshot: 304 when If-None-Match names
+     * the current version, gzip-encoded bytes when the client accepts them. X-Leaderboard-Frozen
+     * tells whether submissions made after the freeze time are left out.
+     */
+    @GetMapping("/{contestId}/leaderboard")
+    public ResponseEntity<byte[]> getLeaderboard(@PathVariable Long contestId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Getting leaderboard for contest: {}", contestId);
+        LeaderboardSnapshot snapshot = contestService.getLeaderboardSnapshot(contestId);
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(snapshot.etag())
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .header("X-Leaderboard-Frozen", Boolean.toString(snapshot.frozen()))
+            .contentType(MediaType.APPLICATION_JSON);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipped());
+        }
+        return response.body(snapshot.json());
+    }
+    
+    /**
+     * Leaderboard entries ranked from..to, one-based and inclusive
+     */
+    @GetMapping("/{contestId}/leaderboard/ranks")
+    public ResponseEntity<LeaderboardPageDto> getLeaderboardRanks(@PathVariable Long contestId,
+                                                                  @RequestParam(defaultValue = "1") int from,
+                                                                  @RequestParam(defaultValue = "50") int to) {
+        log.debug("Getting leaderboard ranks {}-{} for contest: {}", from, to, contestId);
+        return ResponseEntity.ok(contestService.getLeaderboardPage(contestId, from, to));
+    }
+    
+    @GetMapping("/{contestId}/leaderboard/top")
+    public ResponseEntity<LeaderboardPageDto> getLeaderboardTop(@PathVariable Long contestId,
+                                                                @RequestParam(defaultValue = "10") int k) {
+        log.debug("Getting top {} of contest: {}", k, contestId);
+        return ResponseEntity.ok(contestService.getLeaderboardTop(contestId, k));
+    }
+    
+    /**
+     * A user's rank with the entries directly above and below it; 404 when the user is unknown
+     * or has no verdict on the public leaderboard
+     */
+    @GetMapping("/{contestId}/leaderboard/users/{username}")
+    public ResponseEntity<LeaderboardPageDto> getLeaderboardAround(@PathVariable Long contestId,
+                                                                   @PathVariable String username,
+                                                                   @RequestParam(defaultValue = "5") int neighbours) {
+        log.debug("Getting leaderboard position of {} in contest: {}", username, contestId);
+        return contestService.getLeaderboardAround(contestId, username, neighbours)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * A user's results per problem of the contest
+     */
+    @GetMapping("/{contestId}/users/{username}/problems")
+    public ResponseEntity<List<UserProblemStatsDto>> getUserProblemStats(@PathVariable Long contestId,
+                                                                         @PathVariable String username) {
+        log.debug("Getting problem stats of {} in contest: {}", username, contestId);
+        return ResponseEntity.ok(contestService.getUserProblemStats(contestId, username));
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<ContestResponseDto>> getActiveContests() {
+        log.info("Getting active contests");
+        List<ContestResponseDto> contests = contestService.getActiveContests();
+        return ResponseEntity.ok(contests);
+    }
+}
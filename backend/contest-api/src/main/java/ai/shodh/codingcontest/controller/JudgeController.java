@@ -0,0 +1,66 @@
+package ai.shodh.codingcontest.controller;
+
+import ai.shodh.codingcontest.dto.RejudgeProgressDto;
+import ai.shodh.codingcontest.dto.RejudgeRequestDto;
+import ai.shodh.codingcontest.model.JudgeWorker;
+import ai.shodh.codingcontest.service.judge.RejudgeService;
+import ai.shodh.codingcontest.service.judge.SubmissionAdmission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Operational endpoints for the judging pipeline
+ */
+@RestController
+@RequestMapping("/api/judge")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class JudgeController {
+    
+    private final SubmissionAdmission submissionAdmission;
+    private final RejudgeService rejudgeService;
+    
+    /**
+     * Live judge workers with their capacity and compile cache counters
+     */
+    @GetMapping("/workers")
+    public ResponseEntity<List<JudgeWorker>> getWorkers() {
+        return ResponseEntity.ok(submissionAdmission.liveWorkers());
+    }
+    
+    @GetMapping("/queue")
+    public ResponseEntity<SubmissionAdmission.QueueStatus> getQueueStatus() {
+        return ResponseEntity.ok(submissionAdmission.status());
+    }
+    
+    /**
+     * Rejudge all submissions to a problem, a contest or of a user
+     */
+    @PostMapping("/rejudges")
+    public ResponseEntity<RejudgeProgressDto> startRejudge(@Valid @RequestBody RejudgeRequestDto request) {
+        log.info("Starting rejudge of {} {}", request.getScope(), request.getTargetId());
+        return ResponseEntity.ok(rejudgeService.start(request));
+    }
+    
+    @GetMapping("/rejudges")
+    public ResponseEntity<List<RejudgeProgressDto>> getRejudges() {
+        return ResponseEntity.ok(rejudgeService.getRuns());
+    }
+    
+    @GetMapping("/rejudges/{runId}")
+    public ResponseEntity<RejudgeProgressDto> getRejudge(@PathVariable Long runId) {
+        return ResponseEntity.ok(rejudgeService.getProgress(runId));
+    }
+    
+    @PostMapping("/rejudges/{runId}/cancel")
+    public ResponseEntity<RejudgeProgressDto> cancelRejudge(@PathVariable Long runId) {
+        log.info("Cancelling rejudge run {}", runId);
+        return ResponseEntity.ok(rejudgeService.cancel(runId));
+    }
+}
@@ -0,0 +1,68 @@
+package ai.shodh.codingcontest.controller;
+
+import ai.shodh.codingcontest.dto.SubmissionRequestDto;
+import ai.shodh.codingcontest.dto.SubmissionResponseDto;
+import ai.shodh.codingcontest.service.SubmissionService;
+import ai.shodh.codingcontest.service.SubmissionStatusHub;
+import ai.shodh.codingcontest.service.judge.SubmissionAdmission;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/submissions")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"})
+public class SubmissionController {
+    
+    private final SubmissionService submissionService;
+    private final SubmissionAdmission submissionAdmission;
+    private final SubmissionStatusHub submissionStatusHub;
+    
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submitCode(@Valid @RequestBody SubmissionRequestDto request) {
+        log.info("Received submission from user: {} for problem: {}", 
+                request.getUsername(), request.getProblemId());
+        
+        SubmissionAdmission.Decision admission = submissionAdmission.admit(
+                request.getUsername(), Boolean.TRUE.equals(request.getSampleOnly()));
+        if (!admission.admitted()) {
+            HttpStatus status = admission.outcome() == SubmissionAdmission.Outcome.TOO_MANY_REQUESTS
+                    ? HttpStatus.TOO_MANY_REQUESTS
+                    : HttpStatus.SERVICE_UNAVAILABLE;
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(admission.retryAfterSeconds()))
+                    .body(Map.of("error", admission.message(), "retryAfterSeconds", admission.retryAfterSeconds()));
+        }
+        
+        SubmissionResponseDto submission = submissionService.submitCode(request);
+        
+        return ResponseEntity.ok(Map.of("submissionId", submission.getId()));
+    }
+    
+    /**
+     * Server-Sent Events with the status of each submission as it changes, until all have a verdict
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSubmissionStatus(@RequestParam List<Long> ids) {
+        log.debug("Streaming status of submissions {}", ids);
+        return submissionStatusHub.subscribe(ids);
+    }
+    
+    @GetMapping("/{submissionId}")
+    public ResponseEntity<SubmissionResponseDto> getSubmission(@PathVariable Long submissionId) {
+        log.debug("Getting submission with id: {}", submissionId);
+        SubmissionResponseDto submission = submissionService.getSubmissionById(submissionId);
+        return ResponseEntity.ok(submission);
+    }
+}
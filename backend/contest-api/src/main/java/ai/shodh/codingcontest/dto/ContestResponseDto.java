@@ -1,5 +1,6 @@
 package ai.shodh.codingcontest.dto;
 
+import ai.shodh.codingcontest.model.Contest;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,5 +20,10 @@ public class ContestResponseDto {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private boolean active;
+    private Contest.ScoringMode scoringMode;
+    private Integer penaltyMinutes;
+    private LocalDateTime freezeTime;
+    // The public leaderboard is frozen right now
+    private boolean frozen;
     private List<ProblemResponseDto> problems;
 }
@@ -15,6 +15,8 @@ public class LeaderboardEntryDto {
     private String username;
     private Integer totalScore;
     private Integer solvedProblems;
+    // ICPC contests only: minutes to each solve plus the penalty for rejected attempts before it
+    private Long penalty;
     private LocalDateTime lastSubmission;
     private Integer rank;
 }
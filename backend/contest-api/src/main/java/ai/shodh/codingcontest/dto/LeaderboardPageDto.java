@@ -0,0 +1,20 @@
+package ai.shodh.codingcontest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPageDto {
+    // Users on the whole leaderboard
+    private Integer totalEntries;
+    // Only submissions made before the contest's freeze time are counted
+    private Boolean frozen;
+    private List<LeaderboardEntryDto> entries;
+}
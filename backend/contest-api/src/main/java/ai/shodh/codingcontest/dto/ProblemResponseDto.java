@@ -18,5 +18,9 @@ public class ProblemResponseDto {
     private Integer points;
     private Integer timeLimitSeconds;
     private Integer memoryLimitMb;
+    private Integer outputLimitMb;
+    // Users that solved and attempted the problem; null while the contest's leaderboard is frozen
+    private Long solvedBy;
+    private Long attemptedBy;
     private List<TestCaseResponseDto> sampleTestCases;
 }
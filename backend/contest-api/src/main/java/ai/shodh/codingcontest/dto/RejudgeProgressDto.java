@@ -0,0 +1,31 @@
+package ai.shodh.codingcontest.dto;
+
+import ai.shodh.codingcontest.model.RejudgeRun;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejudgeProgressDto {
+    private Long id;
+    private RejudgeRun.Scope scope;
+    private Long targetId;
+    private RejudgeRun.RunStatus status;
+    private Long totalSubmissions;
+    private Long judgedSubmissions;
+    // Queued or being judged
+    private Long inQueueSubmissions;
+    private Long skippedSubmissions;
+    private Double percentComplete;
+    private Double jobsPerSecond;
+    // Null until a verdict came in, or once the run is over
+    private Long estimatedSecondsRemaining;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
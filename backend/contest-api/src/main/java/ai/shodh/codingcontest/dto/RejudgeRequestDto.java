@@ -0,0 +1,21 @@
+package ai.shodh.codingcontest.dto;
+
+import ai.shodh.codingcontest.model.RejudgeRun;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejudgeRequestDto {
+    @NotNull(message = "Scope is required")
+    private RejudgeRun.Scope scope;
+    
+    // Id of the problem, contest or user to rejudge
+    @NotNull(message = "Target ID is required")
+    private Long targetId;
+}
@@ -26,4 +26,7 @@ public class SubmissionRequestDto {
     
     @NotBlank(message = "Language is required")
     private String language;
+    
+    // Run only the sample test cases; judged in the priority lane and never scored
+    private Boolean sampleOnly;
 }
@@ -17,9 +17,11 @@ public class SubmissionResponseDto {
     private String username;
     private Long problemId;
     private String language;
+    private Boolean sampleOnly;
     private SubmissionStatus status;
     private String result;
     private Integer executionTimeMs;
+    private Integer cpuTimeMs;
     private Integer memoryUsedMb;
     private Integer score;
     private LocalDateTime submittedAt;
@@ -0,0 +1,24 @@
+package ai.shodh.codingcontest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProblemStatsDto {
+    private Long problemId;
+    private Integer bestScore;
+    // Judged submissions, sample runs left out
+    private Integer attempts;
+    private boolean solved;
+    private LocalDateTime firstAcceptedAt;
+    private LocalDateTime lastSubmittedAt;
+    // Only submissions made before the contest's freeze time are counted
+    private boolean frozen;
+}
@@ -0,0 +1,161 @@
+package ai.shodh.codingcontest.service;
+
+import ai.shodh.codingcontest.dto.ContestResponseDto;
+import ai.shodh.codingcontest.dto.LeaderboardPageDto;
+import ai.shodh.codingcontest.dto.UserProblemStatsDto;
+import ai.shodh.codingcontest.model.Contest;
+import ai.shodh.codingcontest.model.User;
+import ai.shodh.codingcontest.model.UserProblemStats;
+import ai.shodh.codingcontest.repository.ContestRepository;
+import ai.shodh.codingcontest.repository.SubmissionRepository;
+import ai.shodh.codingcontest.repository.UserProblemStatsRepository;
+import ai.shodh.codingcontest.repository.UserRepository;
+import ai.shodh.codingcontest.service.leaderboard.LeaderboardEngine;
+import ai.shodh.codingcontest.service.leaderboard.LeaderboardSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ContestService {
+    
+    private final ContestRepository contestRepository;
+    private final LeaderboardEngine leaderboardEngine;
+    private final ProblemService problemService;
+    private final UserRepository userRepository;
+    private final SubmissionRepository submissionRepository;
+    private final UserProblemStatsRepository userProblemStatsRepository;
+    
+    // Largest rank range, top-K or neighbourhood served by one leaderboard request
+    @Value("${app.leaderboard.max-page-size:200}")
+    private int maxPageSize;
+    
+    public ContestResponseDto getContestById(Long contestId) {
+        Contest contest = contestRepository.findById(contestId)
+            .orElseThrow(() -> new RuntimeException("Contest not found with id: " + contestId));
+        
+        return ContestResponseDto.builder()
+            .id(contest.getId())
+            .name(contest.getName())
+            .description(contest.getDescription())
+            .startTime(contest.getStartTime())
+            .endTime(contest.getEndTime())
+            .active(contest.isActive())
+            .scoringMode(contest.getScoringMode())
+            .penaltyMinutes(contest.getPenaltyMinutes())
+            .freezeTime(contest.getFreezeTime())
+            .frozen(contest.isFrozen())
+            // Solve counts would give away verdicts the frozen leaderboard hides
+            .problems(contest.isFrozen()
+                ? problemService.getProblemsByContestId(contestId)
+                : problemService.getProblemsWithCountsByContestId(contestId))
+            .build();
+    }
+    
+    /**
+     * Public leaderboard under the contest's scoring mode, as a pre-serialized snapshot of the in-memory standings
+     */
+    public LeaderboardSnapshot getLeaderboardSnapshot(Long contestId) {
+        return leaderboardEngine.snapshot(contestId);
+    }
+    
+    /**
+     * Leaderboard entries ranked fromRank to toRank, inclusive and one-based
+     */
+    public LeaderboardPageDto getLeaderboardPage(Long contestId, int fromRank, int toRank) {
+        int from = Math.max(1, fromRank);
+        return leaderboardEngine.page(contestId, from, Math.min(toRank, from + maxPageSize - 1));
+    }
+    
+    public LeaderboardPageDto getLeaderboardTop(Long contestId, int k) {
+        return getLeaderboardPage(contestId, 1, k);
+    }
+    
+    /**
+     * A user's leaderboard entry and the entries ranked around it, or empty when the user is not ranked
+     */
+    public Optional<LeaderboardPageDto> getLeaderboardAround(Long contestId, String username, int neighbours) {
+        int clamped = Math.max(0, Math.min(neighbours, (maxPageSize - 1) / 2));
+        return leaderboardEngine.around(contestId, username, clamped);
+    }
+    
+    /**
+     * A user's best score, attempts and first accepted time on each problem of a contest they submitted to.
+     * While the leaderboard is frozen only submissions made before the freeze count, like on the leaderboard.
+     */
+    public List<UserProblemStatsDto> getUserProblemStats(Long contestId, String username) {
+        Contest contest = contestRepository.findById(contestId)
+            .orElseThrow(() -> new RuntimeException("Contest not found with id: " + contestId));
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return List.of();
+        }
+        List<UserProblemStats> rows = userProblemStatsRepository.findByUserIdAndContestIdOrderByProblemId(user.getId(), contestId);
+        if (!contest.isFrozen()) {
+            return rows.stream().map(stats -> toDto(stats, false)).toList();
+        }
+        LocalDateTime freezeTime = contest.getFreezeTime();
+        if (rows.stream().allMatch(stats -> stats.getLastSubmittedAt() == null
+                || stats.getLastSubmittedAt().isBefore(freezeTime))) {
+            // Nothing submitted since the freeze, the rows show nothing the leaderboard hides
+            return rows.stream().map(stats -> toDto(stats, true)).toList();
+        }
+        return submissionRepository.summarizeVerdictsBefore(user.getId(), contestId, freezeTime)
+            .stream()
+            .sorted(Comparator.comparing(SubmissionRepository.ProblemVerdictSummaryView::getProblemId))
+            .map(summary -> UserProblemStatsDto.builder()
+                .problemId(summary.getProblemId())
+                .bestScore(summary.getBestScore())
+                .attempts(summary.getAttempts().intValue())
+                .solved(summary.getFirstAcceptedAt() != null)
+                .firstAcceptedAt(summary.getFirstAcceptedAt())
+                .lastSubmittedAt(summary.getLastSubmittedAt())
+                .frozen(true)
+                .build())
+            .toList();
+    }
+    
+    private static UserProblemStatsDto toDto(UserProblemStats stats, boolean frozen) {
+        return UserProblemStatsDto.builder()
+            .problemId(stats.getProblemId())
+            .bestScore(stats.getBestScore())
+            .attempts(stats.getAttempts())
+            .solved(stats.isSolved())
+            .firstAcceptedAt(stats.getFirstAcceptedAt())
+            .lastSubmittedAt(stats.getLastSubmittedAt())
+            .frozen(frozen)
+            .build();
+    }
+    
+    public List<ContestResponseDto> getActiveContests() {
+        return contestRepository.findActiveContests(LocalDateTime.now())
+            .stream()
+            .map(this::mapToResponseDto)
+            .toList();
+    }
+    
+    private ContestResponseDto mapToResponseDto(Contest contest) {
+        return ContestResponseDto.builder()
+            .id(contest.getId())
+            .name(contest.getName())
+            .description(contest.getDescription())
+            .startTime(contest.getStartTime())
+            .endTime(contest.getEndTime())
+            .active(contest.isActive())
+            .scoringMode(contest.getScoringMode())
+            .penaltyMinutes(contest.getPenaltyMinutes())
+            .freezeTime(contest.getFreezeTime())
+            .frozen(contest.isFrozen())
+            .build();
+    }
+}
@@ -20,6 +20,7 @@ public class DataInitializationService implements ApplicationRunner {
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
     private final TestCaseRepository testCaseRepository;
+    private final UserProblemStatsService userProblemStatsService;
     
     @Override
     @Transactional
@@ -29,6 +30,7 @@ public class DataInitializationService implements ApplicationRunner {
             initializeSampleData();
             log.info("Sample data initialized successfully");
         }
+        userProblemStatsService.backfillIfEmpty();
     }
     
     private void initializeSampleData() {
@@ -4,11 +4,16 @@ import ai.shodh.codingcontest.dto.ProblemResponseDto;
 import ai.shodh.codingcontest.dto.TestCaseResponseDto;
 import ai.shodh.codingcontest.model.Problem;
 import ai.shodh.codingcontest.repository.ProblemRepository;
+import ai.shodh.codingcontest.repository.UserProblemStatsRepository;
+import ai.shodh.codingcontest.repository.UserProblemStatsRepository.ProblemCountsView;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -16,6 +21,7 @@ import java.util.List;
 public class ProblemService {
     
     private final ProblemRepository problemRepository;
+    private final UserProblemStatsRepository userProblemStatsRepository;
     
     public List<ProblemResponseDto> getProblemsByContestId(Long contestId) {
         return problemRepository.findByContestIdOrderByIdAsc(contestId)
@@ -24,6 +30,22 @@ public class ProblemService {
             .toList();
     }
     
+    /**
+     * Problems of a contest with how many users solved and attempted each, read from user_problem_stats
+     */
+    public List<ProblemResponseDto> getProblemsWithCountsByContestId(Long contestId) {
+        Map<Long, ProblemCountsView> counts = userProblemStatsRepository.countByProblem(contestId)
+            .stream()
+            .collect(Collectors.toMap(ProblemCountsView::getProblemId, Function.identity()));
+        List<ProblemResponseDto> problems = getProblemsByContestId(contestId);
+        for (ProblemResponseDto problem : problems) {
+            ProblemCountsView forProblem = counts.get(problem.getId());
+            problem.setSolvedBy(forProblem != null ? forProblem.getSolvedBy() : 0L);
+            problem.setAttemptedBy(forProblem != null ? forProblem.getAttemptedBy() : 0L);
+        }
+        return problems;
+    }
+    
     public ProblemResponseDto getProblemById(Long problemId) {
         Problem problem = problemRepository.findById(problemId)
             .orElseThrow(() -> new RuntimeException("Problem not found with id: " + problemId));
@@ -48,6 +70,7 @@ public class ProblemService {
             .points(problem.getPoints())
             .timeLimitSeconds(problem.getTimeLimitSeconds())
             .memoryLimitMb(problem.getMemoryLimitMb())
+            .outputLimitMb(problem.getOutputLimitMb())
             .sampleTestCases(sampleTestCases)
             .build();
     }
@@ -4,15 +4,12 @@ import ai.shodh.codingcontest.dto.SubmissionRequestDto;
 import ai.shodh.codingcontest.dto.SubmissionResponseDto;
 import ai.shodh.codingcontest.model.*;
 import ai.shodh.codingcontest.repository.*;
+import ai.shodh.codingcontest.service.judge.JudgeQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,7 +19,8 @@ public class SubmissionService {
     private final UserRepository userRepository;
     private final ContestRepository contestRepository;
     private final ProblemRepository problemRepository;
-    private final CodeExecutionService codeExecutionService;
+    private final JudgeQueue judgeQueue;
+    private final SubmissionStatusHub submissionStatusHub;
     
     @Transactional
     public SubmissionResponseDto submitCode(SubmissionRequestDto request) {
@@ -53,6 +51,7 @@ public class SubmissionService {
         Submission submission = Submission.builder()
             .code(request.getCode())
             .language(request.getLanguage())
+            .sampleOnly(Boolean.TRUE.equals(request.getSampleOnly()))
             .status(Submission.SubmissionStatus.PENDING)
             .user(user)
             .problem(problem)
@@ -61,58 +60,17 @@ public class SubmissionService {
         
         submission = submissionRepository.save(submission);
         
-        // Process submission asynchronously
-        processSubmissionAsync(submission);
+        // Judge workers pick the submission up once this transaction commits
+        judgeQueue.enqueue(submission);
         
         return mapToResponseDto(submission);
     }
     
-    @Transactional(readOnly = true)
+    /**
+     * Served from the status cache; clients waiting on a verdict share one batched refresh
+     */
     public SubmissionResponseDto getSubmissionById(Long submissionId) {
-        Submission submission = submissionRepository.findById(submissionId)
-            .orElseThrow(() -> new RuntimeException("Submission not found"));
-        
-        return mapToResponseDto(submission);
-    }
-    
-    @Async
-    @Transactional
-    public CompletableFuture<Void> processSubmissionAsync(Submission submission) {
-        log.info("Processing submission {} asynchronously", submission.getId());
-        
-        try {
-            // Update status to running
-            submission.setStatus(Submission.SubmissionStatus.RUNNING);
-            submissionRepository.save(submission);
-            
-            // Get test cases
-            List<TestCase> testCases = submission.getProblem().getTestCases();
-            
-            // Execute code
-            CodeExecutionService.ExecutionResult result = 
-                codeExecutionService.executeCode(submission, testCases);
-            
-            // Update submission with results
-            submission.setStatus(result.status());
-            submission.setResult(result.result());
-            submission.setExecutionTimeMs(result.executionTimeMs());
-            submission.setMemoryUsedMb(result.memoryUsedMb());
-            submission.setScore(result.score());
-            
-            submissionRepository.save(submission);
-            
-            log.info("Submission {} processed with status: {}", 
-                    submission.getId(), result.status());
-            
-        } catch (Exception e) {
-            log.error("Error processing submission {}: {}", submission.getId(), e.getMessage());
-            
-            submission.setStatus(Submission.SubmissionStatus.RUNTIME_ERROR);
-            submission.setResult("System error: " + e.getMessage());
-            submissionRepository.save(submission);
-        }
-        
-        return CompletableFuture.completedFuture(null);
+        return submissionStatusHub.current(submissionId);
     }
     
     private SubmissionResponseDto mapToResponseDto(Submission submission) {
@@ -121,9 +79,11 @@ public class SubmissionService {
             .username(submission.getUser().getUsername())
             .problemId(submission.getProblem().getId())
             .language(submission.getLanguage())
+            .sampleOnly(submission.getSampleOnly())
             .status(submission.getStatus())
             .result(submission.getResult())
             .executionTimeMs(submission.getExecutionTimeMs())
+            .cpuTimeMs(submission.getCpuTimeMs())
             .memoryUsedMb(submission.getMemoryUsedMb())
             .score(submission.getScore())
             .submittedAt(submission.getSubmittedAt())
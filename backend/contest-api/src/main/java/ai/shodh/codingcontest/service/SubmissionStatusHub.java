@@ -0,0 +1,390 @@
+package ai.shodh.codingcontest.service;
+
+import ai.shodh.codingcontest.dto.SubmissionResponseDto;
+import ai.shodh.codingcontest.model.Submission.SubmissionStatus;
+import ai.shodh.codingcontest.repository.SubmissionRepository;
+import ai.shodh.codingcontest.service.judge.RejudgeCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submission status for clients waiting on a verdict. Verdicts are stored by judge workers that may
+ * run in other processes, so one poller refreshes every watched submission with a single batched
+ * query per tick and pushes changes to Server-Sent Event subscribers. The same in-memory cache
+ * answers GETs: submissions still being judged are served as of the last tick, verdicts until
+ * they expire or a rejudge completes. Writes to the streams run on a separate sender pool, so a
+ * slow client never holds up the poller.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionStatusHub implements SmartLifecycle {
+
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final SubmissionRepository submissionRepository;
+
+    // Watched submissions are refreshed from the database this often
+    @Value("${app.submission.status-push.poll-ms:250}")
+    private long pollMs;
+
+    // Event streams are closed after this long; EventSource clients reconnect on their own
+    @Value("${app.submission.status-push.stream-timeout-ms:300000}")
+    private long streamTimeoutMs;
+
+    // Comment sent on idle streams so proxies keep them open
+    @Value("${app.submission.status-push.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.submission.status-push.max-ids-per-stream:20}")
+    private int maxIdsPerStream;
+
+    // Threads writing to event streams; a client that stops reading holds one of them until it times out
+    @Value("${app.submission.status-push.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${app.submission.status-cache.max-entries:20000}")
+    private int maxCacheEntries;
+
+    // Verdicts are re-read after this long, covering rejudges finished by other API instances
+    @Value("${app.submission.status-cache.verdict-ttl-ms:60000}")
+    private long verdictTtlMs;
+
+    private final Map<Long, CachedStatus> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // Submissions without a verdict that a client asked about; refreshed every tick until judged
+    private final Set<Long> live = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private volatile ExecutorService sender;
+    private long lastHeartbeat;
+
+    private record CachedStatus(SubmissionResponseDto status, long loadedAt) {}
+
+    /**
+     * Current status of a submission, from the cache when it is fresh enough
+     */
+    public SubmissionResponseDto current(Long submissionId) {
+        CachedStatus cached = cached(submissionId);
+        if (cached != null && (live.contains(submissionId) || !isStale(cached))) {
+            return cached.status();
+        }
+        refresh(List.of(submissionId));
+        cached = cached(submissionId);
+        if (cached == null) {
+            throw new RuntimeException("Submission not found");
+        }
+        return cached.status();
+    }
+
+    /**
+     * Stream status changes of the given submissions, starting with their current status.
+     * The stream completes once every one of them has a verdict.
+     */
+    public SseEmitter subscribe(List<Long> submissionIds) {
+        Set<Long> ids = new LinkedHashSet<>(submissionIds);
+        if (ids.isEmpty() || ids.size() > maxIdsPerStream) {
+            throw new RuntimeException("Between 1 and " + maxIdsPerStream + " submissions can be watched per stream");
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscription subscription = new Subscription(emitter, ids);
+        emitter.onCompletion(subscription::unregister);
+        emitter.onTimeout(subscription::unregister);
+        emitter.onError(error -> subscription.unregister());
+        // The first status goes out with the poller's next tick
+        for (Long id : ids) {
+            subscribers.compute(id, (key, forId) -> {
+                Set<Subscription> updated = forId != null ? forId : ConcurrentHashMap.newKeySet();
+                updated.add(subscription);
+                return updated;
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Drop cached verdicts once a rejudge has replaced them
+     */
+    @EventListener
+    public void onRejudgeCompleted(RejudgeCompletedEvent event) {
+        synchronized (cache) {
+            cache.values().removeIf(cached -> !isLive(cached.status()));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "submission-status-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "submission-status-send-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastHeartbeat = System.nanoTime();
+        scheduler.scheduleWithFixedDelay(this::tick, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (sender != null) {
+            sender.shutdownNow();
+            sender = null;
+        }
+        subscribers.values().stream()
+            .flatMap(Set::stream)
+            .distinct()
+            .forEach(subscription -> subscription.emitter.complete());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void tick() {
+        try {
+            Set<Long> watched = new HashSet<>(live);
+            watched.addAll(subscribers.keySet());
+
+            List<Long> due = new ArrayList<>();
+            for (Long id : watched) {
+                CachedStatus cached = cached(id);
+                if (cached == null || isLive(cached.status()) || isStale(cached)) {
+                    due.add(id);
+                }
+            }
+            for (int from = 0; from < due.size(); from += REFRESH_BATCH_SIZE) {
+                refresh(due.subList(from, Math.min(due.size(), from + REFRESH_BATCH_SIZE)));
+            }
+
+            for (Map.Entry<Long, Set<Subscription>> entry : subscribers.entrySet()) {
+                CachedStatus cached = cached(entry.getKey());
+                for (Subscription subscription : entry.getValue()) {
+                    if (cached == null) {
+                        subscription.drop(entry.getKey());
+                    } else {
+                        subscription.offer(cached.status());
+                    }
+                }
+            }
+
+            long now = System.nanoTime();
+            if (now - lastHeartbeat >= TimeUnit.MILLISECONDS.toNanos(heartbeatMs)) {
+                lastHeartbeat = now;
+                subscribers.values().stream()
+                    .flatMap(Set::stream)
+                    .distinct()
+                    .forEach(Subscription::heartbeat);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Submission status refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        long now = System.nanoTime();
+        for (SubmissionRepository.StatusView view : submissionRepository.findStatusViewsByIdIn(ids)) {
+            SubmissionResponseDto status = toDto(view);
+            missing.remove(status.getId());
+            synchronized (cache) {
+                cache.put(status.getId(), new CachedStatus(status, now));
+                if (cache.size() > maxCacheEntries) {
+                    Iterator<Long> eldest = cache.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+            if (isLive(status)) {
+                live.add(status.getId());
+            } else {
+                live.remove(status.getId());
+            }
+        }
+        live.removeAll(missing);
+    }
+
+    private CachedStatus cached(Long id) {
+        synchronized (cache) {
+            return cache.get(id);
+        }
+    }
+
+    private boolean isStale(CachedStatus cached) {
+        return System.nanoTime() - cached.loadedAt() > TimeUnit.MILLISECONDS.toNanos(verdictTtlMs);
+    }
+
+    private static boolean isLive(SubmissionResponseDto status) {
+        return status.getStatus() == SubmissionStatus.PENDING || status.getStatus() == SubmissionStatus.RUNNING;
+    }
+
+    private static SubmissionResponseDto toDto(SubmissionRepository.StatusView view) {
+        return SubmissionResponseDto.builder()
+            .id(view.getId())
+            .username(view.getUsername())
+            .problemId(view.getProblemId())
+            .language(view.getLanguage())
+            .sampleOnly(view.getSampleOnly())
+            .status(view.getStatus())
+            .result(view.getResult())
+            .executionTimeMs(view.getExecutionTimeMs())
+            .cpuTimeMs(view.getCpuTimeMs())
+            .memoryUsedMb(view.getMemoryUsedMb())
+            .score(view.getScore())
+            .submittedAt(view.getSubmittedAt())
+            .build();
+    }
+
+    /**
+     * One event stream. The poller offers statuses; they wait in an outbox that keeps only the latest
+     * status per submission, so it never holds more than the stream's watched ids and a heartbeat,
+     * and one sender task at a time writes them to the client.
+     */
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Set<Long> waiting;
+        // Last status handed to the outbox, only touched by the poller
+        private final Map<Long, SubmissionResponseDto> offered = new HashMap<>();
+        // Guarded by this
+        private final Map<Long, SubmissionResponseDto> outbox = new LinkedHashMap<>();
+        private boolean heartbeatDue;
+        private boolean draining;
+
+        private Subscription(SseEmitter emitter, Set<Long> ids) {
+            this.emitter = emitter;
+            this.waiting = ConcurrentHashMap.newKeySet();
+            this.waiting.addAll(ids);
+        }
+
+        void offer(SubmissionResponseDto status) {
+            if (!waiting.contains(status.getId()) || status.equals(offered.get(status.getId()))) {
+                return;
+            }
+            offered.put(status.getId(), status);
+            synchronized (this) {
+                // Replaces a status the client has not been sent yet
+                outbox.put(status.getId(), status);
+            }
+            schedule();
+        }
+
+        void drop(Long id) {
+            waiting.remove(id);
+            leave(id);
+            // The sender completes the stream once the outbox is flushed
+            schedule();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        void unregister() {
+            for (Long id : waiting) {
+                leave(id);
+            }
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            ExecutorService executor = sender;
+            if (executor != null) {
+                try {
+                    executor.execute(this::drain);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, stop() completes the stream
+                }
+            }
+            synchronized (this) {
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SubmissionResponseDto next = null;
+                boolean sendHeartbeat = false;
+                synchronized (this) {
+                    Iterator<SubmissionResponseDto> pending = outbox.values().iterator();
+                    if (pending.hasNext()) {
+                        next = pending.next();
+                        pending.remove();
+                    } else if (heartbeatDue) {
+                        heartbeatDue = false;
+                        sendHeartbeat = true;
+                    } else {
+                        draining = false;
+                        break;
+                    }
+                }
+                try {
+                    if (next != null) {
+                        emitter.send(SseEmitter.event()
+                            .name("status")
+                            .id(next.getId() + ":" + next.getStatus())
+                            .data(next));
+                    } else {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away
+                    unregister();
+                    synchronized (this) {
+                        outbox.clear();
+                        draining = false;
+                    }
+                    return;
+                }
+                if (next != null && !isLive(next)) {
+                    waiting.remove(next.getId());
+                    leave(next.getId());
+                }
+            }
+            if (waiting.isEmpty()) {
+                emitter.complete();
+            }
+        }
+
+        private void leave(Long id) {
+            subscribers.computeIfPresent(id, (key, forId) -> {
+                forId.remove(this);
+                return forId.isEmpty() ? null : forId;
+            });
+        }
+    }
+}
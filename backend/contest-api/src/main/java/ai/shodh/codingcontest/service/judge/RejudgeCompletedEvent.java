@@ -0,0 +1,11 @@
+package ai.shodh.codingcontest.service.judge;
+
+import java.util.List;
+
+/**
+ * Published once every submission of a rejudge run has its new verdict, on the one instance
+ * that completed the run. Standings do not depend on it: new verdicts carry a new update stamp,
+ * so the LeaderboardEngine feed of every instance recounts them as they are written.
+ * @param contestIds Contests whose standings the new verdicts may change
+ */
+public record RejudgeCompletedEvent(Long rejudgeRunId, List<Long> contestIds) {}
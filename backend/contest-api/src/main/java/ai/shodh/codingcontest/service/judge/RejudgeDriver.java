@@ -0,0 +1,85 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.JudgeJob;
+import ai.shodh.codingcontest.repository.JudgeJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds rejudge runs into the judge queue at a bounded rate. Queued submissions are paced by
+ * a token bucket, and only max-outstanding rejudge jobs are in the queue at once, so a large
+ * rejudge neither floods the queue table nor takes long to cancel. Each API instance runs
+ * its own driver; the rate applies per instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RejudgeDriver implements SmartLifecycle {
+
+    private final RejudgeService rejudgeService;
+    private final JudgeJobRepository judgeJobRepository;
+
+    // Rejudge submissions queued per second across all runs
+    @Value("${app.judge.rejudge.jobs-per-second:2.0}")
+    private double jobsPerSecond;
+
+    // Rejudge jobs queued or being judged at once
+    @Value("${app.judge.rejudge.max-outstanding:50}")
+    private long maxOutstanding;
+
+    @Value("${app.judge.rejudge.tick-ms:1000}")
+    private long tickMs;
+
+    private ScheduledExecutorService scheduler;
+    private double credit;
+    private long lastTick;
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rejudge-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastTick = System.nanoTime();
+        scheduler.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            // Credit unused while idle is capped at one tick's worth, so a new run starts at the configured rate
+            double burst = Math.max(1.0, jobsPerSecond * tickMs / 1000.0);
+            credit = Math.min(burst, credit + jobsPerSecond * (now - lastTick) / 1e9);
+            lastTick = now;
+
+            long budget = Math.min((long) credit, maxOutstanding - judgeJobRepository.countByLane(JudgeJob.Lane.REJUDGE));
+            if (budget > 0) {
+                credit -= rejudgeService.feed((int) budget);
+            }
+            rejudgeService.finishDrained();
+        } catch (Exception e) {
+            log.warn("Rejudge driver tick failed: {}", e.getMessage());
+        }
+    }
+}
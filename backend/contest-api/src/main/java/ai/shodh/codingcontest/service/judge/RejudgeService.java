@@ -0,0 +1,217 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.dto.RejudgeProgressDto;
+import ai.shodh.codingcontest.dto.RejudgeRequestDto;
+import ai.shodh.codingcontest.model.RejudgeRun;
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rejudges every submission to a problem, a contest or of a user.
+ *
+ * A run walks the submissions in its scope in id order and hands them to the judge queue in
+ * the rejudge lane, which workers only serve while no live submission waits. The
+ * {@link RejudgeDriver} decides how many are queued per tick. The position reached is stored
+ * with the run in the same transaction as the queued jobs, so a restarted instance resumes
+ * where the previous one stopped. A submission keeps its old verdict until the new one is written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RejudgeService {
+    
+    private final RejudgeRunRepository rejudgeRunRepository;
+    private final SubmissionRepository submissionRepository;
+    private final JudgeJobRepository judgeJobRepository;
+    private final ProblemRepository problemRepository;
+    private final ContestRepository contestRepository;
+    private final UserRepository userRepository;
+    private final JudgeQueue judgeQueue;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Most submissions read and queued in one transaction
+    @Value("${app.judge.rejudge.page-size:100}")
+    private int pageSize;
+    
+    @Transactional
+    public RejudgeProgressDto start(RejudgeRequestDto request) {
+        Long targetId = request.getTargetId();
+        boolean exists = switch (request.getScope()) {
+            case PROBLEM -> problemRepository.existsById(targetId);
+            case CONTEST -> contestRepository.existsById(targetId);
+            case USER -> userRepository.existsById(targetId);
+        };
+        if (!exists) {
+            throw new RuntimeException("Rejudge target not found: " + request.getScope() + " " + targetId);
+        }
+        
+        Long untilId = submissionRepository.findMaxId();
+        Filter filter = Filter.of(request.getScope(), targetId);
+        RejudgeRun run = rejudgeRunRepository.save(RejudgeRun.builder()
+            .scope(request.getScope())
+            .targetId(targetId)
+            .untilSubmissionId(untilId)
+            .totalSubmissions(submissionRepository.countRejudgeScope(untilId,
+                filter.problemId(), filter.contestId(), filter.userId()))
+            .build());
+        log.info("Started rejudge run {} for {} {}: {} submissions",
+                run.getId(), run.getScope(), targetId, run.getTotalSubmissions());
+        return toProgress(run);
+    }
+    
+    @Transactional(readOnly = true)
+    public RejudgeProgressDto getProgress(Long runId) {
+        return toProgress(findRun(runId));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<RejudgeProgressDto> getRuns() {
+        return rejudgeRunRepository.findAllByOrderByIdDesc()
+            .stream()
+            .map(this::toProgress)
+            .toList();
+    }
+    
+    /**
+     * Stop a run. Its queued jobs are dropped; submissions being judged still get their new verdict.
+     */
+    @Transactional
+    public RejudgeProgressDto cancel(Long runId) {
+        RejudgeRun run = findRun(runId);
+        if (isOpen(run)) {
+            int dropped = judgeJobRepository.deleteQueuedByRejudgeRunId(runId);
+            run.setEnqueuedSubmissions(run.getEnqueuedSubmissions() - dropped);
+            run.setStatus(RejudgeRun.RunStatus.CANCELLED);
+            run.setFinishedAt(LocalDateTime.now());
+            log.info("Cancelled rejudge run {}, dropped {} queued submissions", runId, dropped);
+        }
+        return toProgress(run);
+    }
+    
+    /**
+     * Queue the next submissions of the oldest run still feeding and move its checkpoint past them
+     * @param maxSubmissions Most submissions to queue
+     * @return Submissions queued, 0 when no run is feeding
+     */
+    @Transactional
+    public int feed(int maxSubmissions) {
+        Optional<RejudgeRun> locked = rejudgeRunRepository.lockNextFeeding();
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        RejudgeRun run = locked.get();
+        Filter filter = Filter.of(run.getScope(), run.getTargetId());
+        int limit = Math.max(1, Math.min(maxSubmissions, pageSize));
+        List<Submission> page = submissionRepository.findRejudgePage(run.getLastSubmissionId(),
+            run.getUntilSubmissionId(), filter.problemId(), filter.contestId(), filter.userId(),
+            PageRequest.of(0, limit));
+        
+        int enqueued = 0;
+        int skipped = 0;
+        for (Submission submission : page) {
+            // Already waiting for a verdict, which will use the current test data
+            if (judgeJobRepository.existsBySubmissionId(submission.getId())) {
+                skipped++;
+            } else {
+                judgeQueue.enqueueRejudge(submission, run.getId());
+                enqueued++;
+            }
+            run.setLastSubmissionId(submission.getId());
+        }
+        run.setEnqueuedSubmissions(run.getEnqueuedSubmissions() + enqueued);
+        run.setSkippedSubmissions(run.getSkippedSubmissions() + skipped);
+        
+        if (page.size() < limit) {
+            run.setStatus(RejudgeRun.RunStatus.DRAINING);
+            log.info("Rejudge run {} queued all its submissions", run.getId());
+        }
+        return enqueued;
+    }
+    
+    /**
+     * Complete the runs whose submissions all have their new verdict. Runs are locked, so only one
+     * instance completes a run and publishes its event.
+     */
+    @Transactional
+    public void finishDrained() {
+        for (RejudgeRun run : rejudgeRunRepository.lockDraining()) {
+            if (judgeJobRepository.countByRejudgeRunId(run.getId()) > 0) {
+                continue;
+            }
+            run.setStatus(RejudgeRun.RunStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+            
+            Filter filter = Filter.of(run.getScope(), run.getTargetId());
+            List<Long> contestIds = submissionRepository.findRejudgeScopeContestIds(
+                filter.problemId(), filter.contestId(), filter.userId());
+            log.info("Rejudge run {} completed, standings of contests {} changed", run.getId(), contestIds);
+            eventPublisher.publishEvent(new RejudgeCompletedEvent(run.getId(), contestIds));
+        }
+    }
+    
+    private RejudgeRun findRun(Long runId) {
+        return rejudgeRunRepository.findById(runId)
+            .orElseThrow(() -> new RuntimeException("Rejudge run not found with id: " + runId));
+    }
+    
+    private static boolean isOpen(RejudgeRun run) {
+        return run.getStatus() == RejudgeRun.RunStatus.FEEDING || run.getStatus() == RejudgeRun.RunStatus.DRAINING;
+    }
+    
+    private RejudgeProgressDto toProgress(RejudgeRun run) {
+        long inQueue = run.getId() != null && isOpen(run) ? judgeJobRepository.countByRejudgeRunId(run.getId()) : 0;
+        long judged = run.getEnqueuedSubmissions() - inQueue;
+        long done = judged + run.getSkippedSubmissions();
+        long total = run.getTotalSubmissions();
+        
+        LocalDateTime startedAt = run.getCreatedAt() != null ? run.getCreatedAt() : LocalDateTime.now();
+        LocalDateTime endedAt = run.getFinishedAt() != null ? run.getFinishedAt() : LocalDateTime.now();
+        double elapsedSeconds = Math.max(1, Duration.between(startedAt, endedAt).toMillis()) / 1000.0;
+        double jobsPerSecond = judged / elapsedSeconds;
+        Long etaSeconds = isOpen(run) && jobsPerSecond > 0
+            ? (long) Math.ceil(Math.max(0, total - done) / jobsPerSecond)
+            : null;
+        
+        return RejudgeProgressDto.builder()
+            .id(run.getId())
+            .scope(run.getScope())
+            .targetId(run.getTargetId())
+            .status(run.getStatus())
+            .totalSubmissions(total)
+            .judgedSubmissions(judged)
+            .inQueueSubmissions(inQueue)
+            .skippedSubmissions(run.getSkippedSubmissions())
+            .percentComplete(total == 0 ? 100.0 : Math.min(100.0, Math.round(done * 1000.0 / total) / 10.0))
+            .jobsPerSecond(Math.round(jobsPerSecond * 100) / 100.0)
+            .estimatedSecondsRemaining(etaSeconds)
+            .createdAt(run.getCreatedAt())
+            .finishedAt(run.getFinishedAt())
+            .build();
+    }
+    
+    /**
+     * Submission filters of a scope, null meaning unrestricted
+     */
+    private record Filter(Long problemId, Long contestId, Long userId) {
+        
+        static Filter of(RejudgeRun.Scope scope, Long targetId) {
+            return switch (scope) {
+                case PROBLEM -> new Filter(targetId, null, null);
+                case CONTEST -> new Filter(null, targetId, null);
+                case USER -> new Filter(null, null, targetId);
+            };
+        }
+    }
+}
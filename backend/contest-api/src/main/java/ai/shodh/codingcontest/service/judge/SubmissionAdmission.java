@@ -0,0 +1,170 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.JudgeJob;
+import ai.shodh.codingcontest.model.JudgeWorker;
+import ai.shodh.codingcontest.repository.JudgeJobRepository;
+import ai.shodh.codingcontest.repository.JudgeWorkerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Decides whether a new submission is accepted into the judge queue.
+ *
+ * Limits are checked against the live queue depth and the estimated drain rate, so a burst
+ * (typically at contest start) is answered with "retry after N seconds" instead of piling up
+ * unbounded waits. Load is shed in stages: sample runs are refused first, then users with
+ * many submissions already waiting, and only then everybody. The drain rate is the capacity
+ * the live judge workers report in their heartbeats.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionAdmission {
+
+    private final JudgeJobRepository judgeJobRepository;
+    private final JudgeWorkerRepository judgeWorkerRepository;
+
+    // Queued jobs at which new submissions are refused until the backlog drains
+    @Value("${app.judge.admission.max-queued:500}")
+    private long maxQueued;
+
+    // Sample runs are shed earlier than graded submissions
+    @Value("${app.judge.admission.max-queued-for-sample-runs:200}")
+    private long maxQueuedForSampleRuns;
+
+    // Waiting submissions a single user may have
+    @Value("${app.judge.admission.max-queued-per-user:10}")
+    private long maxQueuedPerUser;
+
+    // Estimated wait at which new submissions are refused
+    @Value("${app.judge.admission.max-wait-seconds:600}")
+    private long maxWaitSeconds;
+
+    // Drain rate assumed before any live worker reported completed jobs
+    @Value("${app.judge.admission.initial-jobs-per-second:1.0}")
+    private double initialJobsPerSecond;
+
+    @Value("${app.judge.admission.max-retry-after-seconds:300}")
+    private long maxRetryAfterSeconds;
+
+    // Workers without a heartbeat for this long no longer count towards capacity
+    @Value("${app.judge.admission.worker-timeout-seconds:30}")
+    private long workerTimeoutSeconds;
+
+    /**
+     * Check whether a submission may be queued now
+     * @param username Submitting user
+     * @param sampleOnly Whether the submission only runs the samples
+     */
+    public Decision admit(String username, boolean sampleOnly) {
+        QueueStatus status = status();
+        double jobsPerSecond = status.jobsPerSecond();
+
+        long queueLimit = sampleOnly ? Math.min(maxQueuedForSampleRuns, maxQueued) : maxQueued;
+        if (status.queuedJobs() >= queueLimit) {
+            // Until the backlog drains back below the limit
+            return Decision.reject(Outcome.OVERLOADED,
+                retryAfter((status.queuedJobs() - queueLimit + 1) / jobsPerSecond),
+                "The judge queue is full, please retry later");
+        }
+        if (status.estimatedWaitSeconds() >= maxWaitSeconds) {
+            return Decision.reject(Outcome.OVERLOADED,
+                retryAfter(status.estimatedWaitSeconds() - maxWaitSeconds + 1),
+                "Judging is running behind, please retry later");
+        }
+
+        long queuedForUser = judgeJobRepository.countQueuedByUsername(username);
+        if (queuedForUser >= maxQueuedPerUser) {
+            // Workers are shared fairly between the users waiting, so one of this user's jobs
+            // finishes about once per (waiting users / throughput) seconds
+            double userJobsPerSecond = jobsPerSecond / Math.max(1, status.queuedUsers());
+            log.info("Throttling {}: {} submissions already waiting", username, queuedForUser);
+            return Decision.reject(Outcome.TOO_MANY_REQUESTS,
+                retryAfter((queuedForUser - maxQueuedPerUser + 1) / userJobsPerSecond),
+                "You have " + queuedForUser + " submissions waiting to be judged, please retry later");
+        }
+        if (status.workers() == 0) {
+            // Accepted all the same, a worker started later drains the queue
+            log.warn("No live judge worker, submissions wait until one is started against this database "
+                + "(or run the API built with -Pembedded-worker)");
+        }
+        return Decision.ADMITTED;
+    }
+
+    /**
+     * @return Current queue depth, drain rate and wait estimate
+     */
+    public QueueStatus status() {
+        // Rejudges wait behind live submissions, so they do not add to a new submission's wait
+        long queued = judgeJobRepository.countLiveByStatus(JudgeJob.JobStatus.QUEUED);
+        long judging = judgeJobRepository.countByStatus(JudgeJob.JobStatus.CLAIMED);
+        long queuedUsers = queued > 0 ? judgeJobRepository.countQueuedUsers() : 0;
+        List<JudgeWorker> workers = liveWorkers();
+        double jobsPerSecond = drainRate(workers);
+        // Jobs being judged are half done on average
+        long waitSeconds = (long) Math.ceil((queued + judging / 2.0) / jobsPerSecond);
+        return new QueueStatus(queued, judging, queuedUsers, workers.size(),
+            Math.round(jobsPerSecond * 100) / 100.0, waitSeconds);
+    }
+
+    /**
+     * @return Judge workers with a recent heartbeat
+     */
+    public List<JudgeWorker> liveWorkers() {
+        return judgeWorkerRepository.findByLastHeartbeatAfterOrderById(LocalDateTime.now().minusSeconds(workerTimeoutSeconds));
+    }
+
+    /**
+     * Completions observed while the queue was short understate what a worker can do, so its
+     * rate is also estimated from its parallelism and average time per job
+     */
+    private double drainRate(List<JudgeWorker> workers) {
+        double capacity = 0;
+        for (JudgeWorker worker : workers) {
+            double observed = worker.getJobsPerSecond() != null ? worker.getJobsPerSecond() : 0;
+            double averageJobMs = worker.getAverageJobMs() != null ? worker.getAverageJobMs() : 0;
+            double estimated = averageJobMs > 0 ? worker.getParallelism() * 1000.0 / averageJobMs : 0;
+            capacity += Math.max(observed, estimated);
+        }
+        return Math.max(capacity > 0 ? capacity : initialJobsPerSecond, 0.01);
+    }
+
+    private long retryAfter(double seconds) {
+        return Math.max(1, Math.min(maxRetryAfterSeconds, (long) Math.ceil(seconds)));
+    }
+
+    public enum Outcome {
+        ADMITTED,
+        // The user has too many submissions waiting
+        TOO_MANY_REQUESTS,
+        // The queue as a whole is over capacity
+        OVERLOADED
+    }
+
+    public record Decision(Outcome outcome, long retryAfterSeconds, String message) {
+
+        static final Decision ADMITTED = new Decision(Outcome.ADMITTED, 0, null);
+
+        static Decision reject(Outcome outcome, long retryAfterSeconds, String message) {
+            return new Decision(outcome, retryAfterSeconds, message);
+        }
+
+        public boolean admitted() {
+            return outcome == Outcome.ADMITTED;
+        }
+    }
+
+    public record QueueStatus(
+        long queuedJobs,
+        long judgingJobs,
+        long queuedUsers,
+        int workers,
+        double jobsPerSecond,
+        long estimatedWaitSeconds
+    ) {}
+}
@@ -0,0 +1,158 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.dto.LeaderboardEntryDto;
+import ai.shodh.codingcontest.repository.SubmissionRepository.VerdictView;
+import ai.shodh.codingcontest.service.leaderboard.ProblemTally.Outcome;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Standings of one contest: each user's result per problem under the contest's scoring rules,
+ * their totals, and the users in a rank index. A verdict moves at most one user, and a user's
+ * rank or a rank range is read without walking the users ahead, all in O(log n). Not
+ * thread-safe; LeaderboardEngine synchronizes on the instance.
+ */
+class ContestStandings {
+
+    /**
+     * Higher total first, then the lower penalty, then whoever reached it earlier
+     */
+    private static final Comparator<Standing> RANK_ORDER = Comparator
+        .comparingInt((Standing standing) -> -standing.totalScore)
+        .thenComparingLong(standing -> standing.penaltyMinutes)
+        .thenComparing(standing -> standing.reachedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(standing -> standing.username)
+        .thenComparing(standing -> standing.userId);
+
+    private final ScoringRules rules;
+    // Penalties are only shown where the rules give them
+    private final boolean penalized;
+    private final Map<Long, Standing> byUser = new HashMap<>();
+    private final Map<String, Standing> byUsername = new HashMap<>();
+    private final RankIndex<Standing> ranking = new RankIndex<>(RANK_ORDER);
+    // Bumped on every change to the ranking
+    private long version;
+
+    ContestStandings(ScoringRules rules, boolean penalized) {
+        this.rules = rules;
+        this.penalized = penalized;
+    }
+
+    /**
+     * Apply a verdict; verdicts seen before are no-ops
+     */
+    Outcome apply(VerdictView verdict) {
+        Standing standing = standingOf(verdict);
+        ProblemTally tally = standing.tallies.computeIfAbsent(verdict.getProblemId(), id -> rules.newTally());
+        Outcome outcome = tally.apply(verdict);
+        if (outcome == Outcome.CHANGED) {
+            // Re-keyed around the change, the index orders by the mutable totals
+            ranking.remove(standing);
+            standing.recompute();
+            ranking.add(standing);
+            version++;
+        }
+        return outcome;
+    }
+
+    /**
+     * Replace a user's result on a problem with one replayed from all their verdicts on it
+     */
+    void reset(Long userId, Long problemId, List<VerdictView> verdicts) {
+        Standing standing = byUser.get(userId);
+        if (standing == null) {
+            return;
+        }
+        ProblemTally tally = rules.newTally();
+        for (VerdictView verdict : verdicts) {
+            tally.apply(verdict);
+        }
+        ranking.remove(standing);
+        standing.tallies.put(problemId, tally);
+        standing.recompute();
+        ranking.add(standing);
+        version++;
+    }
+
+    long version() {
+        return version;
+    }
+
+    int size() {
+        return ranking.size();
+    }
+
+    /**
+     * Zero-based rank of a user, or -1 when they have no verdict in the contest
+     */
+    int rankOf(String username) {
+        Standing standing = byUsername.get(username);
+        return standing == null ? -1 : ranking.rankOf(standing);
+    }
+
+    /**
+     * Entries at zero-based ranks [from, to)
+     */
+    List<LeaderboardEntryDto> entries(int from, int to) {
+        int rank = Math.max(0, from);
+        List<LeaderboardEntryDto> entries = new ArrayList<>();
+        for (Standing standing : ranking.range(from, to)) {
+            entries.add(LeaderboardEntryDto.builder()
+                .rank(++rank)
+                .username(standing.username)
+                .totalScore(standing.totalScore)
+                .solvedProblems(standing.solvedProblems)
+                .penalty(penalized ? standing.penaltyMinutes : null)
+                .lastSubmission(standing.reachedAt)
+                .build());
+        }
+        return entries;
+    }
+
+    private Standing standingOf(VerdictView verdict) {
+        Standing standing = byUser.get(verdict.getUserId());
+        if (standing == null) {
+            standing = new Standing(verdict.getUserId(), verdict.getUsername());
+            byUser.put(standing.userId, standing);
+            byUsername.put(standing.username, standing);
+            ranking.add(standing);
+            version++;
+        }
+        return standing;
+    }
+
+    private static final class Standing {
+        private final Long userId;
+        private final String username;
+        private final Map<Long, ProblemTally> tallies = new HashMap<>();
+        private int totalScore;
+        private int solvedProblems;
+        private long penaltyMinutes;
+        // Submission that brought the user to their current total; null while it is zero
+        private LocalDateTime reachedAt;
+
+        private Standing(Long userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        private void recompute() {
+            totalScore = 0;
+            solvedProblems = 0;
+            penaltyMinutes = 0;
+            reachedAt = null;
+            for (ProblemTally tally : tallies.values()) {
+                ProblemTally.Result result = tally.result();
+                totalScore += result.score();
+                penaltyMinutes += result.penaltyMinutes();
+                if (result.solved()) {
+                    solvedProblems++;
+                }
+                if (result.reachedAt() != null && (reachedAt == null || result.reachedAt().isAfter(reachedAt))) {
+                    reachedAt = result.reachedAt();
+                }
+            }
+        }
+    }
+}
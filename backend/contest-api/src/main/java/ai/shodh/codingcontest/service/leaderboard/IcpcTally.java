@@ -0,0 +1,89 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.model.Submission.SubmissionStatus;
+import ai.shodh.codingcontest.repository.SubmissionRepository.VerdictView;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ICPC rules: a solved problem costs the minutes from contest start to its first accepted
+ * submission plus a fixed penalty per rejected submission before it. Attempts are kept up to the
+ * first accepted one, so verdicts judged out of submission order and re-read verdicts count once;
+ * later attempts cannot change the result and are not kept.
+ */
+final class IcpcTally implements ProblemTally {
+
+    private static final Comparator<Attempt> SUBMISSION_ORDER = Comparator
+        .comparing(Attempt::submittedAt)
+        .thenComparing(Attempt::submissionId);
+
+    private final LocalDateTime contestStart;
+    private final int penaltyMinutes;
+    private final Map<Long, Attempt> attempts = new HashMap<>();
+    private Attempt firstAccepted;
+    private Result result = Result.NONE;
+
+    IcpcTally(LocalDateTime contestStart, int penaltyMinutes) {
+        this.contestStart = contestStart;
+        this.penaltyMinutes = penaltyMinutes;
+    }
+
+    @Override
+    public Outcome apply(VerdictView verdict) {
+        Attempt attempt = Attempt.of(verdict);
+        Attempt known = attempts.get(attempt.submissionId());
+        if (known != null) {
+            if (known.equals(attempt)) {
+                return Outcome.UNCHANGED;
+            }
+            if (known == firstAccepted && !attempt.accepted()) {
+                // Attempts after it were dropped
+                return Outcome.RECHECK;
+            }
+        } else if (!attempt.counts()
+                || (firstAccepted != null && SUBMISSION_ORDER.compare(attempt, firstAccepted) > 0)) {
+            return Outcome.UNCHANGED;
+        }
+        attempts.put(attempt.submissionId(), attempt);
+        recompute();
+        return Outcome.CHANGED;
+    }
+
+    @Override
+    public Result result() {
+        return result;
+    }
+
+    private void recompute() {
+        firstAccepted = attempts.values().stream()
+            .filter(Attempt::accepted)
+            .min(SUBMISSION_ORDER)
+            .orElse(null);
+        if (firstAccepted == null) {
+            result = Result.NONE;
+            return;
+        }
+        attempts.values().removeIf(attempt -> SUBMISSION_ORDER.compare(attempt, firstAccepted) > 0);
+        long rejected = attempts.values().stream().filter(attempt -> attempt.counts() && !attempt.accepted()).count();
+        long minutes = Math.max(0, Duration.between(contestStart, firstAccepted.submittedAt()).toMinutes());
+        result = new Result(1, true, minutes + rejected * penaltyMinutes, firstAccepted.submittedAt());
+    }
+
+    /**
+     * @param counts Whether the verdict is an attempt at all; compilation errors cost nothing
+     */
+    private record Attempt(Long submissionId, LocalDateTime submittedAt, boolean accepted, boolean counts) {
+        static Attempt of(VerdictView verdict) {
+            return new Attempt(
+                verdict.getSubmissionId(),
+                verdict.getSubmittedAt(),
+                verdict.getStatus() == SubmissionStatus.ACCEPTED,
+                verdict.getStatus() != SubmissionStatus.COMPILATION_ERROR
+            );
+        }
+    }
+}
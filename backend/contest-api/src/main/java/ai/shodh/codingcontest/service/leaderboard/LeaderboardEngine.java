@@ -0,0 +1,372 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.dto.LeaderboardEntryDto;
+import ai.shodh.codingcontest.dto.LeaderboardPageDto;
+import ai.shodh.codingcontest.model.Contest;
+import ai.shodh.codingcontest.repository.ContestRepository;
+import ai.shodh.codingcontest.repository.SubmissionRepository;
+import ai.shodh.codingcontest.repository.SubmissionRepository.VerdictView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory standings of every contest that has been asked for, served without touching the
+ * database. A contest is built from its verdicts once, on startup for running contests or on
+ * first request, and then kept current by following the verdicts judge workers write: the
+ * submissions table is read by its database-clock update stamp, a little behind the newest
+ * verdict seen so transactions that committed late are not missed. Re-reading a verdict is a
+ * no-op, so the overlap is free apart from the rows. Rejudged verdicts come in through the same
+ * feed, which recounts the user's result on that problem, so no rejudge event is needed.
+ * The full leaderboard is served as a pre-serialized snapshot, retaken on read once the
+ * standings have changed, at most once per snapshot-interval-ms per contest.
+ * Contests with a freeze time keep a second set of standings that only counts submissions made
+ * before it; the public leaderboard serves those from the freeze until the contest ends.
+ * Contest settings are re-read every tick; a board whose scoring mode, start, penalty or freeze
+ * time changed is rebuilt from its verdicts, readers keep the old one until the new one is ready.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardEngine implements SmartLifecycle {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SubmissionRepository submissionRepository;
+    private final ContestRepository contestRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.leaderboard.poll-ms:500}")
+    private long pollMs;
+
+    // Verdicts updated this long before the newest one seen are read again
+    @Value("${app.leaderboard.feed-overlap-ms:2000}")
+    private long feedOverlapMs;
+
+    // A changed leaderboard is re-serialized at most this often; readers get the previous snapshot meanwhile
+    @Value("${app.leaderboard.snapshot-interval-ms:1000}")
+    private long snapshotIntervalMs;
+
+    private final Map<Long, ContestBoard> contests = new ConcurrentHashMap<>();
+    // Entity tags name the process too, versions restart with it
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private ScheduledExecutorService scheduler;
+    private volatile LocalDateTime cursor = BEGINNING;
+
+    /**
+     * Snapshot of a contest's public leaderboard, at most snapshot-interval-ms behind the standings
+     */
+    public LeaderboardSnapshot snapshot(Long contestId) {
+        ContestBoard board = board(contestId);
+        if (board == null) {
+            return serialize(contestId, "", false, 0, List.of());
+        }
+        StandingsView view = board.publicView();
+        LeaderboardSnapshot current = view.snapshot;
+        if (current != null && (current.version() == currentVersion(view.standings)
+                || System.nanoTime() - current.takenAtNanos() < TimeUnit.MILLISECONDS.toNanos(snapshotIntervalMs))) {
+            return current;
+        }
+        // One reader retakes the snapshot, the others keep serving the previous one
+        if (current != null && !view.retaking.tryLock()) {
+            return current;
+        }
+        if (current == null) {
+            view.retaking.lock();
+        }
+        try {
+            return view.take(contestId);
+        } finally {
+            view.retaking.unlock();
+        }
+    }
+
+    /**
+     * Public entries ranked from fromRank to toRank, both one-based and inclusive
+     */
+    public LeaderboardPageDto page(Long contestId, int fromRank, int toRank) {
+        ContestBoard board = board(contestId);
+        return board == null ? emptyPage() : page(board.publicView(), fromRank, toRank);
+    }
+
+    /**
+     * A user's public entry with up to the given number of entries ranked directly above and below,
+     * or empty when the user has no verdict on the public leaderboard
+     */
+    public Optional<LeaderboardPageDto> around(Long contestId, String username, int neighbours) {
+        ContestBoard board = board(contestId);
+        if (board == null) {
+            throw new RuntimeException("Contest not found with id: " + contestId);
+        }
+        StandingsView view = board.publicView();
+        ContestStandings standings = view.standings;
+        synchronized (standings) {
+            int rank = standings.rankOf(username);
+            if (rank < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(LeaderboardPageDto.builder()
+                .totalEntries(standings.size())
+                .frozen(view.frozen)
+                .entries(standings.entries(rank - neighbours, rank + neighbours + 1))
+                .build());
+        }
+    }
+
+    private static LeaderboardPageDto page(StandingsView view, int fromRank, int toRank) {
+        ContestStandings standings = view.standings;
+        synchronized (standings) {
+            return LeaderboardPageDto.builder()
+                .totalEntries(standings.size())
+                .frozen(view.frozen)
+                .entries(standings.entries(fromRank - 1, toRank))
+                .build();
+        }
+    }
+
+    private static LeaderboardPageDto emptyPage() {
+        return LeaderboardPageDto.builder().totalEntries(0).frozen(false).entries(List.of()).build();
+    }
+
+    private static long currentVersion(ContestStandings standings) {
+        synchronized (standings) {
+            return standings.version();
+        }
+    }
+
+    private ContestBoard board(Long contestId) {
+        ContestBoard board = contests.get(contestId);
+        if (board != null || !contestRepository.existsById(contestId)) {
+            return board;
+        }
+        return contests.computeIfAbsent(contestId, this::build);
+    }
+
+    private ContestBoard build(Long contestId) {
+        long started = System.nanoTime();
+        LocalDateTime since = cursor;
+        Contest contest = contestRepository.findById(contestId)
+            .orElseThrow(() -> new RuntimeException("Contest not found with id: " + contestId));
+        List<VerdictView> verdicts = submissionRepository.findVerdictsByContestId(contestId);
+        ContestBoard board = new ContestBoard(contest);
+        for (VerdictView verdict : verdicts) {
+            board.apply(verdict);
+        }
+        // The feed skips this contest until it is built; catch up on what it passed over meanwhile
+        for (VerdictView verdict : submissionRepository.findVerdictsUpdatedSince(minusOverlap(since))) {
+            if (verdict.getContestId().equals(contestId)) {
+                board.apply(verdict);
+            }
+        }
+        log.info("Built {} standings of contest {} from {} verdicts in {} ms", contest.getScoringMode(), contestId,
+                verdicts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return board;
+    }
+
+    @Override
+    public synchronized void start() {
+        cursor = submissionRepository.findLastUpdatedAt().orElse(BEGINNING);
+        for (Contest contest : contestRepository.findActiveContests(LocalDateTime.now())) {
+            contests.computeIfAbsent(contest.getId(), this::build);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void tick() {
+        try {
+            reloadSettings();
+            LocalDateTime newest = cursor;
+            for (VerdictView verdict : submissionRepository.findVerdictsUpdatedSince(minusOverlap(cursor))) {
+                if (verdict.getUpdatedAt().isAfter(newest)) {
+                    newest = verdict.getUpdatedAt();
+                }
+                ContestBoard board = contests.get(verdict.getContestId());
+                if (board != null) {
+                    board.apply(verdict);
+                }
+            }
+            cursor = newest;
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard feed failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pick up contest edits, which may have been made through another instance
+     */
+    private void reloadSettings() {
+        if (contests.isEmpty()) {
+            return;
+        }
+        for (Contest contest : contestRepository.findAllById(contests.keySet())) {
+            ContestBoard board = contests.get(contest.getId());
+            if (board == null) {
+                continue;
+            }
+            if (board.settings.equals(Settings.of(contest))) {
+                // The end time only decides when the freeze lifts
+                board.contest = contest;
+            } else {
+                log.info("Settings of contest {} changed, rebuilding its standings", contest.getId());
+                contests.put(contest.getId(), build(contest.getId()));
+            }
+        }
+    }
+
+    private LocalDateTime minusOverlap(LocalDateTime time) {
+        return time.minusNanos(TimeUnit.MILLISECONDS.toNanos(feedOverlapMs));
+    }
+
+    /**
+     * A contest's live standings and, when it has a freeze time, the public ones that only count
+     * submissions made before it
+     */
+    private final class ContestBoard {
+        // Settings the standings were built with
+        private final Settings settings;
+        private final StandingsView live;
+        private final StandingsView frozen;
+        private volatile Contest contest;
+
+        private ContestBoard(Contest contest) {
+            this.contest = contest;
+            this.settings = Settings.of(contest);
+            ScoringRules rules = ScoringRules.of(contest);
+            boolean penalized = contest.getScoringMode() == Contest.ScoringMode.ICPC;
+            this.live = new StandingsView(new ContestStandings(rules, penalized), "", false);
+            this.frozen = contest.getFreezeTime() == null
+                ? null
+                : new StandingsView(new ContestStandings(rules, penalized), "-frozen", true);
+        }
+
+        private StandingsView publicView() {
+            return frozen != null && contest.isFrozen() ? frozen : live;
+        }
+
+        private void apply(VerdictView verdict) {
+            live.apply(verdict, null);
+            if (frozen != null && verdict.getSubmittedAt().isBefore(settings.freezeTime())) {
+                frozen.apply(verdict, settings.freezeTime());
+            }
+        }
+    }
+
+    /**
+     * Contest settings that change how verdicts are counted
+     */
+    private record Settings(
+        Contest.ScoringMode scoringMode,
+        LocalDateTime startTime,
+        Integer penaltyMinutes,
+        LocalDateTime freezeTime
+    ) {
+        static Settings of(Contest contest) {
+            return new Settings(contest.getScoringMode(), contest.getStartTime(), contest.getPenaltyMinutes(),
+                contest.getFreezeTime());
+        }
+    }
+
+    private final class StandingsView {
+        private final ContestStandings standings;
+        // Told apart in entity tags, each view counts its own versions
+        private final String tag;
+        private final boolean frozen;
+        private final ReentrantLock retaking = new ReentrantLock();
+        private volatile LeaderboardSnapshot snapshot;
+
+        private StandingsView(ContestStandings standings, String tag, boolean frozen) {
+            this.standings = standings;
+            this.tag = tag;
+            this.frozen = frozen;
+        }
+
+        /**
+         * @param before Only verdicts of submissions made before this time count; null for all
+         */
+        private void apply(VerdictView verdict, LocalDateTime before) {
+            ProblemTally.Outcome outcome;
+            synchronized (standings) {
+                outcome = standings.apply(verdict);
+            }
+            if (outcome == ProblemTally.Outcome.RECHECK) {
+                // A rejudge changed a verdict the user's result on this problem rests on
+                List<VerdictView> verdicts = submissionRepository.findVerdictsByUserIdAndProblemId(
+                        verdict.getUserId(), verdict.getProblemId()).stream()
+                    .filter(candidate -> before == null || candidate.getSubmittedAt().isBefore(before))
+                    .toList();
+                synchronized (standings) {
+                    standings.reset(verdict.getUserId(), verdict.getProblemId(), verdicts);
+                }
+            }
+        }
+
+        private LeaderboardSnapshot take(Long contestId) {
+            long version;
+            List<LeaderboardEntryDto> entries;
+            synchronized (standings) {
+                version = standings.version();
+                if (snapshot != null && snapshot.version() == version) {
+                    return snapshot;
+                }
+                entries = standings.entries(0, standings.size());
+            }
+            snapshot = serialize(contestId, tag, frozen, version, entries);
+            return snapshot;
+        }
+    }
+
+    private LeaderboardSnapshot serialize(Long contestId, String tag, boolean frozen, long version,
+                                          List<LeaderboardEntryDto> entries) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize leaderboard of contest " + contestId, e);
+        }
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = "W/\"" + contestId + tag + "-" + epoch + "-" + version + "\"";
+        return new LeaderboardSnapshot(version, etag, frozen, json, gzipped.toByteArray(), System.nanoTime());
+    }
+}
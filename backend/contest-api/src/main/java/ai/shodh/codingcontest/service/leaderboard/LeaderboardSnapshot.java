@@ -0,0 +1,28 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+/**
+ * Immutable leaderboard of one contest, serialized once and served as is to every reader
+ * @param version Standings version the snapshot was taken at
+ * @param etag Weak entity tag, unique across API restarts
+ * @param frozen Whether it only counts submissions made before the contest's freeze time
+ * @param json Entries as a JSON array
+ * @param gzipped The same JSON, gzip-compressed
+ */
+public record LeaderboardSnapshot(long version, String etag, boolean frozen, byte[] json, byte[] gzipped, long takenAtNanos) {
+
+    /**
+     * Whether an If-None-Match header names this snapshot
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag) || ("W/" + candidate).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.model.Submission.SubmissionStatus;
+import ai.shodh.codingcontest.repository.SubmissionRepository.VerdictView;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Points rules: the user's best submission on the problem counts
+ */
+final class PointsTally implements ProblemTally {
+
+    /**
+     * Higher score first, then accepted, then the earlier submission
+     */
+    private static final Comparator<Best> BEST_ORDER = Comparator
+        .comparingInt((Best best) -> -best.score())
+        .thenComparing(best -> !best.accepted())
+        .thenComparing(Best::submittedAt)
+        .thenComparing(Best::submissionId);
+
+    private Best best;
+
+    @Override
+    public Outcome apply(VerdictView verdict) {
+        Best candidate = Best.of(verdict);
+        if (best == null || (!best.submissionId().equals(candidate.submissionId())
+                && BEST_ORDER.compare(candidate, best) < 0)) {
+            best = candidate;
+            return Outcome.CHANGED;
+        }
+        if (!best.submissionId().equals(candidate.submissionId()) || best.equals(candidate)) {
+            return Outcome.UNCHANGED;
+        }
+        if (BEST_ORDER.compare(candidate, best) <= 0) {
+            best = candidate;
+            return Outcome.CHANGED;
+        }
+        // The best submission lost points, another one may be ahead now
+        return Outcome.RECHECK;
+    }
+
+    @Override
+    public Result result() {
+        if (best == null) {
+            return Result.NONE;
+        }
+        return new Result(best.score(), best.accepted(), 0, best.score() > 0 ? best.submittedAt() : null);
+    }
+
+    private record Best(Long submissionId, int score, boolean accepted, LocalDateTime submittedAt) {
+        static Best of(VerdictView verdict) {
+            return new Best(
+                verdict.getSubmissionId(),
+                verdict.getScore() != null ? verdict.getScore() : 0,
+                verdict.getStatus() == SubmissionStatus.ACCEPTED,
+                verdict.getSubmittedAt()
+            );
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.repository.SubmissionRepository.VerdictView;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's standing on one problem under a contest's scoring rules, fed one verdict at a time.
+ * Feeding a verdict again must be a no-op, the verdict feed re-reads recent rows.
+ */
+interface ProblemTally {
+
+    enum Outcome {
+        UNCHANGED,
+        CHANGED,
+        // A rejudge changed a verdict the tally summarized away; replay all of the user's verdicts on the problem
+        RECHECK
+    }
+
+    Outcome apply(VerdictView verdict);
+
+    Result result();
+
+    /**
+     * @param score Points, or 1 for a problem solved under ICPC rules
+     * @param penaltyMinutes Always 0 under points rules
+     * @param reachedAt Submission time of the verdict the result rests on, null while it scores nothing
+     */
+    record Result(int score, boolean solved, long penaltyMinutes, LocalDateTime reachedAt) {
+        static final Result NONE = new Result(0, false, 0, null);
+    }
+}
@@ -0,0 +1,165 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic tree: a treap whose nodes count their subtree, so the rank of an element and the
+ * element at a rank are found in O(log n), and a rank range of k elements is read in O(log n + k)
+ * without walking the ones before it. Elements must not change their order while in the index;
+ * remove, update and add again. Not thread-safe.
+ */
+final class RankIndex<T> {
+
+    private final Comparator<? super T> order;
+    private Node<T> root;
+
+    RankIndex(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void add(T value) {
+        root = insert(root, new Node<>(value));
+    }
+
+    void remove(T value) {
+        root = delete(root, value);
+    }
+
+    /**
+     * Zero-based position of an element in the index, or -1 when it is not in it
+     */
+    int rankOf(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            int cmp = order.compare(value, node.value);
+            if (cmp == 0) {
+                return rank + size(node.left);
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Elements at positions [from, to), in order
+     */
+    List<T> range(int from, int to) {
+        int start = Math.max(0, from);
+        int end = Math.min(size(), to);
+        List<T> values = new ArrayList<>(Math.max(0, end - start));
+        if (start < end) {
+            collect(root, start, end, 0, values);
+        }
+        return values;
+    }
+
+    private void collect(Node<T> node, int from, int to, int offset, List<T> values) {
+        if (node == null) {
+            return;
+        }
+        int position = offset + size(node.left);
+        if (from < position) {
+            collect(node.left, from, to, offset, values);
+        }
+        if (from <= position && position < to) {
+            values.add(node.value);
+        }
+        if (position + 1 < to) {
+            collect(node.right, from, to, position + 1, values);
+        }
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (order.compare(added.value, node.value) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = order.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, value);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, value);
+        }
+        node.update();
+        return node;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        private Node(T value) {
+            this.value = value;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ai.shodh.codingcontest.service.leaderboard;
+
+import ai.shodh.codingcontest.model.Contest;
+
+/**
+ * How a contest turns verdicts into per-problem results. Standings of every mode rank by total
+ * score, then total penalty, then the time the last counted result was reached.
+ */
+interface ScoringRules {
+
+    ProblemTally newTally();
+
+    static ScoringRules of(Contest contest) {
+        return switch (contest.getScoringMode()) {
+            case POINTS -> PointsTally::new;
+            case ICPC -> () -> new IcpcTally(contest.getStartTime(), contest.getPenaltyMinutes());
+        };
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -38,6 +39,22 @@ public class Contest {
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scoring_mode", nullable = false)
+    @ColumnDefault("'POINTS'")
+    @Builder.Default
+    private ScoringMode scoringMode = ScoringMode.POINTS;
+
+    // ICPC: minutes added per rejected attempt before the first accepted one
+    @Column(name = "penalty_minutes", nullable = false)
+    @ColumnDefault("20")
+    @Builder.Default
+    private Integer penaltyMinutes = 20;
+
+    // Public standings stop showing verdicts of submissions made from this time until the contest ends
+    @Column(name = "freeze_time")
+    private LocalDateTime freezeTime;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -52,4 +69,16 @@ public class Contest {
         LocalDateTime now = LocalDateTime.now();
         return now.isAfter(startTime) && now.isBefore(endTime);
     }
+
+    public boolean isFrozen() {
+        LocalDateTime now = LocalDateTime.now();
+        return freezeTime != null && !now.isBefore(freezeTime) && now.isBefore(endTime);
+    }
+
+    public enum ScoringMode {
+        // Best score per problem, summed; ties go to whoever reached the total first
+        POINTS,
+        // Problems solved, then penalty: minutes to the first accepted submission plus penalty-minutes per earlier rejected one
+        ICPC
+    }
 }
@@ -0,0 +1,85 @@
+package ai.shodh.codingcontest.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable queue entry for a submission waiting to be judged. The row is removed
+ * once the verdict is written; a claim older than the lease is taken over by another worker.
+ */
+@Entity
+@Table(name = "judge_jobs", indexes = {
+    @Index(name = "idx_judge_jobs_status", columnList = "status, id"),
+    @Index(name = "idx_judge_jobs_flow", columnList = "status, lane, contest_id, user_id, id"),
+    @Index(name = "idx_judge_jobs_rejudge", columnList = "rejudge_run_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "submission_id", nullable = false, unique = true)
+    private Long submissionId;
+
+    // Denormalized from the submission, the scheduler groups queued jobs into flows by them
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "contest_id")
+    private Long contestId;
+
+    // Workers judge queued submissions to the same problem together in one batch
+    @Column(name = "problem_id")
+    private Long problemId;
+
+    // Set when the job re-evaluates an already judged submission as part of a rejudge run
+    @Column(name = "rejudge_run_id")
+    private Long rejudgeRunId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "lane")
+    @Builder.Default
+    private Lane lane = Lane.STANDARD;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @CreationTimestamp
+    @Column(name = "enqueued_at", nullable = false, updatable = false)
+    private LocalDateTime enqueuedAt;
+
+    public enum JobStatus {
+        QUEUED,
+        CLAIMED
+    }
+
+    public enum Lane {
+        // Short jobs such as sample-only runs, served ahead of standard jobs
+        PRIORITY,
+        STANDARD,
+        // Rejudges of judged submissions, served only while no live submission waits
+        REJUDGE
+    }
+}
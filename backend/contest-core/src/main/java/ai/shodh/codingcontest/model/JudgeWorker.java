@@ -0,0 +1,60 @@
+package ai.shodh.codingcontest.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Heartbeat of a running judge worker instance. The API sums the capacity of the workers
+ * with a recent heartbeat to estimate how fast the queue drains.
+ */
+@Entity
+@Table(name = "judge_workers")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JudgeWorker {
+    // Instance id, also written to judge_jobs.claimed_by by the worker's threads
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    private String host;
+
+    // Submissions the instance judges at the same time
+    @Column(nullable = false)
+    private Integer parallelism;
+
+    @Column(name = "jobs_per_second")
+    private Double jobsPerSecond;
+
+    @Column(name = "average_job_ms")
+    private Double averageJobMs;
+
+    @Column(name = "compile_cache_hits")
+    private Long compileCacheHits;
+
+    @Column(name = "compile_cache_misses")
+    private Long compileCacheMisses;
+
+    @Column(name = "compile_cache_entries")
+    private Integer compileCacheEntries;
+
+    // Evictions per tier, for sizing the in-memory and on-disk compile caches
+    @Column(name = "compile_cache_memory_evictions")
+    private Long compileCacheMemoryEvictions;
+
+    @Column(name = "compile_cache_disk_evictions")
+    private Long compileCacheDiskEvictions;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "last_heartbeat", nullable = false)
+    private LocalDateTime lastHeartbeat;
+}
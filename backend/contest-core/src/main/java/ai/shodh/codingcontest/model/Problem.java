@@ -43,6 +43,10 @@ public class Problem {
     @Column(name = "memory_limit_mb", nullable = false)
     private Integer memoryLimitMb;
 
+    @Column(name = "output_limit_mb")
+    @Builder.Default
+    private Integer outputLimitMb = 64;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -52,6 +56,7 @@ public class Problem {
     private Contest contest;
 
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("id ASC")
     private List<TestCase> testCases;
 
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
@@ -0,0 +1,83 @@
+package ai.shodh.codingcontest.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Re-evaluation of all judged submissions to a problem, a contest or of a user, for example
+ * after a broken test case was fixed. Submissions are fed to the judge queue in id order;
+ * lastSubmissionId is the checkpoint a restarted instance resumes from.
+ */
+@Entity
+@Table(name = "rejudge_runs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RejudgeRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Scope scope;
+
+    // Id of the problem, contest or user, depending on the scope
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private RunStatus status = RunStatus.FEEDING;
+
+    // Submissions in scope when the run was started
+    @Column(name = "total_submissions", nullable = false)
+    private Long totalSubmissions;
+
+    @Column(name = "enqueued_submissions", nullable = false)
+    @Builder.Default
+    private Long enqueuedSubmissions = 0L;
+
+    // Submissions passed over because they were already waiting for a verdict
+    @Column(name = "skipped_submissions", nullable = false)
+    @Builder.Default
+    private Long skippedSubmissions = 0L;
+
+    @Column(name = "last_submission_id", nullable = false)
+    @Builder.Default
+    private Long lastSubmissionId = 0L;
+
+    // Newest submission when the run started; later submissions are judged on the fixed data anyway
+    @Column(name = "until_submission_id", nullable = false)
+    private Long untilSubmissionId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Scope {
+        PROBLEM,
+        CONTEST,
+        USER
+    }
+
+    public enum RunStatus {
+        // Submissions are still being fed to the judge queue
+        FEEDING,
+        // All submissions are queued, waiting for their verdicts
+        DRAINING,
+        COMPLETED,
+        CANCELLED
+    }
+}
@@ -8,11 +8,16 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+    @Index(name = "idx_submissions_updated_at", columnList = "updated_at"),
+    @Index(name = "idx_submissions_user_problem", columnList = "user_id, problem_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -30,6 +35,10 @@ public class Submission {
     @Column(nullable = false)
     private String language;
 
+    @Column(name = "sample_only", nullable = false)
+    @Builder.Default
+    private Boolean sampleOnly = false;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -41,6 +50,9 @@ public class Submission {
     @Column(name = "execution_time_ms")
     private Integer executionTimeMs;
 
+    @Column(name = "cpu_time_ms")
+    private Integer cpuTimeMs;
+
     @Column(name = "memory_used_mb")
     private Integer memoryUsedMb;
 
@@ -52,6 +64,11 @@ public class Submission {
     @Column(name = "submitted_at", nullable = false, updatable = false)
     private LocalDateTime submittedAt;
 
+    // Database clock, so API instances can follow verdicts written by judge workers on other hosts
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -71,6 +88,7 @@ public class Submission {
         WRONG_ANSWER,
         TIME_LIMIT_EXCEEDED,
         MEMORY_LIMIT_EXCEEDED,
+        OUTPUT_LIMIT_EXCEEDED,
         RUNTIME_ERROR,
         COMPILATION_ERROR
     }
@@ -30,6 +30,15 @@ public class TestCase {
     @Builder.Default
     private Boolean isSample = false;
 
+    // How often the case was run and failed, hidden cases that fail most are run first
+    @Column(name = "run_count")
+    @Builder.Default
+    private Long runCount = 0L;
+
+    @Column(name = "failure_count")
+    @Builder.Default
+    private Long failureCount = 0L;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
@@ -0,0 +1,60 @@
+package ai.shodh.codingcontest.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's scored submissions to one problem, summarized. Rewritten from the user's submissions
+ * to the problem whenever one of them gets a verdict, so per-user and per-problem questions read
+ * one row per user and problem instead of every submission.
+ */
+@Entity
+@Table(name = "user_problem_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_user_problem_stats_user_problem", columnNames = {"user_id", "problem_id"}),
+    indexes = {
+        @Index(name = "idx_user_problem_stats_user_contest", columnList = "user_id, contest_id"),
+        @Index(name = "idx_user_problem_stats_contest_problem", columnList = "contest_id, problem_id, first_accepted_at")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProblemStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "contest_id", nullable = false)
+    private Long contestId;
+
+    @Column(name = "problem_id", nullable = false)
+    private Long problemId;
+
+    @Column(name = "best_score", nullable = false)
+    @Builder.Default
+    private Integer bestScore = 0;
+
+    // Judged submissions, sample runs left out
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    // Submission time of the earliest accepted submission; null while unsolved
+    @Column(name = "first_accepted_at")
+    private LocalDateTime firstAcceptedAt;
+
+    @Column(name = "last_submitted_at")
+    private LocalDateTime lastSubmittedAt;
+
+    public boolean isSolved() {
+        return firstAcceptedAt != null;
+    }
+}
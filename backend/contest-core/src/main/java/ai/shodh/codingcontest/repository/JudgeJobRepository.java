@@ -0,0 +1,76 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.JudgeJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JudgeJobRepository extends JpaRepository<JudgeJob, Long> {
+    
+    /**
+     * Lock the oldest job that is queued or whose claim expired, skipping jobs other workers hold locked
+     */
+    @Query(value = "SELECT * FROM judge_jobs " +
+                   "WHERE status = 'QUEUED' OR (status = 'CLAIMED' AND claimed_at < :staleBefore) " +
+                   "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<JudgeJob> lockNextAvailable(@Param("staleBefore") LocalDateTime staleBefore);
+    
+    /**
+     * Oldest queued job of every flow, a flow being the jobs of one user in one contest and lane
+     */
+    @Query("SELECT j FROM JudgeJob j WHERE j.id IN (" +
+           "SELECT MIN(h.id) FROM JudgeJob h WHERE h.status = 'QUEUED' GROUP BY h.lane, h.contestId, h.userId) " +
+           "ORDER BY j.id")
+    List<JudgeJob> findQueuedFlowHeads();
+    
+    long countByStatus(JudgeJob.JobStatus status);
+    
+    /**
+     * Jobs in the given status, leaving out rejudges, which only run while live submissions don't wait
+     */
+    @Query("SELECT COUNT(j) FROM JudgeJob j WHERE j.status = :status AND (j.lane IS NULL OR j.lane <> 'REJUDGE')")
+    long countLiveByStatus(@Param("status") JudgeJob.JobStatus status);
+    
+    @Query("SELECT COUNT(DISTINCT j.userId) FROM JudgeJob j " +
+           "WHERE j.status = 'QUEUED' AND (j.lane IS NULL OR j.lane <> 'REJUDGE')")
+    long countQueuedUsers();
+    
+    @Query("SELECT COUNT(j) FROM JudgeJob j, User u " +
+           "WHERE u.id = j.userId AND u.username = :username AND j.status = 'QUEUED' " +
+           "AND (j.lane IS NULL OR j.lane <> 'REJUDGE')")
+    long countQueuedByUsername(@Param("username") String username);
+    
+    long countByLane(JudgeJob.Lane lane);
+    
+    long countByRejudgeRunId(Long rejudgeRunId);
+    
+    boolean existsBySubmissionId(Long submissionId);
+    
+    @Modifying
+    @Query("DELETE FROM JudgeJob j WHERE j.rejudgeRunId = :rejudgeRunId AND j.status = 'QUEUED'")
+    int deleteQueuedByRejudgeRunId(@Param("rejudgeRunId") Long rejudgeRunId);
+    
+    /**
+     * Lock a specific job if it is still queued and no other worker holds it
+     */
+    @Query(value = "SELECT * FROM judge_jobs WHERE id = :id AND status = 'QUEUED' FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<JudgeJob> lockIfQueued(@Param("id") Long id);
+    
+    /**
+     * Lock a job whatever its status, waiting for a worker that holds it locked
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM JudgeJob j WHERE j.id = :id")
+    Optional<JudgeJob> lockById(@Param("id") Long id);
+}
@@ -0,0 +1,26 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.JudgeWorker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JudgeWorkerRepository extends JpaRepository<JudgeWorker, String> {
+    
+    List<JudgeWorker> findByLastHeartbeatAfterOrderById(LocalDateTime after);
+    
+    /**
+     * Remove workers that stopped without deregistering
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JudgeWorker w WHERE w.lastHeartbeat < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,29 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.RejudgeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RejudgeRunRepository extends JpaRepository<RejudgeRun, Long> {
+    
+    List<RejudgeRun> findAllByOrderByIdDesc();
+    
+    /**
+     * Lock the runs waiting for their last verdicts, skipping runs another instance is finishing
+     */
+    @Query(value = "SELECT * FROM rejudge_runs WHERE status = 'DRAINING' ORDER BY id FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<RejudgeRun> lockDraining();
+    
+    /**
+     * Lock the oldest run still feeding submissions, skipping a run another instance is feeding
+     */
+    @Query(value = "SELECT * FROM rejudge_runs WHERE status = 'FEEDING' ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<RejudgeRun> lockNextFeeding();
+}
@@ -0,0 +1,167 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.model.Submission.SubmissionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+    List<Submission> findByContestIdOrderBySubmittedAtDesc(Long contestId);
+    
+    @Query("SELECT s FROM Submission s JOIN FETCH s.problem p LEFT JOIN FETCH p.testCases WHERE s.id = :id")
+    Optional<Submission> findWithTestCasesById(@Param("id") Long id);
+    
+    List<Submission> findByUserIdAndContestIdOrderBySubmittedAtDesc(Long userId, Long contestId);
+    
+    /**
+     * Status and verdict of submissions, without loading their code
+     */
+    @Query("SELECT s.id AS id, u.username AS username, s.problem.id AS problemId, s.language AS language, " +
+           "s.sampleOnly AS sampleOnly, s.status AS status, s.result AS result, " +
+           "s.executionTimeMs AS executionTimeMs, s.cpuTimeMs AS cpuTimeMs, s.memoryUsedMb AS memoryUsedMb, " +
+           "s.score AS score, s.submittedAt AS submittedAt " +
+           "FROM Submission s JOIN s.user u WHERE s.id IN :ids")
+    List<StatusView> findStatusViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Verdicts of scored submissions written since the given database time, oldest first
+     */
+    @Query("SELECT s.id AS submissionId, s.contest.id AS contestId, u.id AS userId, u.username AS username, " +
+           "s.problem.id AS problemId, s.status AS status, s.score AS score, " +
+           "s.submittedAt AS submittedAt, s.updatedAt AS updatedAt " +
+           "FROM Submission s JOIN s.user u WHERE s.updatedAt > :since AND s.sampleOnly = false " +
+           "AND s.status NOT IN ('PENDING', 'RUNNING') ORDER BY s.updatedAt")
+    List<VerdictView> findVerdictsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Verdicts of all scored submissions of a contest
+     */
+    @Query("SELECT s.id AS submissionId, s.contest.id AS contestId, u.id AS userId, u.username AS username, " +
+           "s.problem.id AS problemId, s.status AS status, s.score AS score, " +
+           "s.submittedAt AS submittedAt, s.updatedAt AS updatedAt " +
+           "FROM Submission s JOIN s.user u WHERE s.contest.id = :contestId AND s.sampleOnly = false " +
+           "AND s.status NOT IN ('PENDING', 'RUNNING')")
+    List<VerdictView> findVerdictsByContestId(@Param("contestId") Long contestId);
+    
+    /**
+     * Verdicts of a user's scored submissions to a problem
+     */
+    @Query("SELECT s.id AS submissionId, s.contest.id AS contestId, u.id AS userId, u.username AS username, " +
+           "s.problem.id AS problemId, s.status AS status, s.score AS score, " +
+           "s.submittedAt AS submittedAt, s.updatedAt AS updatedAt " +
+           "FROM Submission s JOIN s.user u WHERE u.id = :userId AND s.problem.id = :problemId " +
+           "AND s.sampleOnly = false AND s.status NOT IN ('PENDING', 'RUNNING')")
+    List<VerdictView> findVerdictsByUserIdAndProblemId(@Param("userId") Long userId, @Param("problemId") Long problemId);
+    
+    /**
+     * Scored verdicts of a user on a problem, aggregated; attempts is 0 when there are none
+     */
+    @Query("SELECT COUNT(s) AS attempts, COALESCE(MAX(s.score), 0) AS bestScore, " +
+           "MIN(CASE WHEN s.status = 'ACCEPTED' THEN s.submittedAt END) AS firstAcceptedAt, " +
+           "MAX(s.submittedAt) AS lastSubmittedAt " +
+           "FROM Submission s WHERE s.user.id = :userId AND s.problem.id = :problemId " +
+           "AND s.sampleOnly = false AND s.status NOT IN ('PENDING', 'RUNNING')")
+    VerdictSummaryView summarizeVerdicts(@Param("userId") Long userId, @Param("problemId") Long problemId);
+    
+    /**
+     * Scored verdicts of a user in a contest on submissions made before the given time, aggregated per problem
+     */
+    @Query("SELECT s.problem.id AS problemId, COUNT(s) AS attempts, COALESCE(MAX(s.score), 0) AS bestScore, " +
+           "MIN(CASE WHEN s.status = 'ACCEPTED' THEN s.submittedAt END) AS firstAcceptedAt, " +
+           "MAX(s.submittedAt) AS lastSubmittedAt " +
+           "FROM Submission s WHERE s.user.id = :userId AND s.contest.id = :contestId AND s.submittedAt < :before " +
+           "AND s.sampleOnly = false AND s.status NOT IN ('PENDING', 'RUNNING') GROUP BY s.problem.id")
+    List<ProblemVerdictSummaryView> summarizeVerdictsBefore(@Param("userId") Long userId,
+                                                            @Param("contestId") Long contestId,
+                                                            @Param("before") LocalDateTime before);
+    
+    @Query("SELECT MAX(s.updatedAt) FROM Submission s")
+    Optional<LocalDateTime> findLastUpdatedAt();
+    
+    @Query("SELECT s FROM Submission s WHERE s.contest.id = :contestId AND s.status = 'ACCEPTED' " +
+           "AND s.sampleOnly = false ORDER BY s.submittedAt")
+    List<Submission> findAcceptedSubmissionsByContest(@Param("contestId") Long contestId);
+    
+    /**
+     * Next page of submissions in a rejudge scope, in id order after the checkpoint.
+     * Filters that are null do not restrict the scope.
+     */
+    @Query("SELECT s FROM Submission s WHERE s.id > :afterId AND s.id <= :untilId AND s.sampleOnly = false " +
+           "AND (:problemId IS NULL OR s.problem.id = :problemId) " +
+           "AND (:contestId IS NULL OR s.contest.id = :contestId) " +
+           "AND (:userId IS NULL OR s.user.id = :userId) " +
+           "ORDER BY s.id")
+    List<Submission> findRejudgePage(@Param("afterId") Long afterId,
+                                     @Param("untilId") Long untilId,
+                                     @Param("problemId") Long problemId,
+                                     @Param("contestId") Long contestId,
+                                     @Param("userId") Long userId,
+                                     Pageable page);
+    
+    @Query("SELECT COALESCE(MAX(s.id), 0) FROM Submission s")
+    Long findMaxId();
+    
+    @Query("SELECT COUNT(s) FROM Submission s WHERE s.id <= :untilId AND s.sampleOnly = false " +
+           "AND (:problemId IS NULL OR s.problem.id = :problemId) " +
+           "AND (:contestId IS NULL OR s.contest.id = :contestId) " +
+           "AND (:userId IS NULL OR s.user.id = :userId)")
+    long countRejudgeScope(@Param("untilId") Long untilId,
+                           @Param("problemId") Long problemId,
+                           @Param("contestId") Long contestId,
+                           @Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT s.contest.id FROM Submission s WHERE s.sampleOnly = false " +
+           "AND (:problemId IS NULL OR s.problem.id = :problemId) " +
+           "AND (:contestId IS NULL OR s.contest.id = :contestId) " +
+           "AND (:userId IS NULL OR s.user.id = :userId)")
+    List<Long> findRejudgeScopeContestIds(@Param("problemId") Long problemId,
+                                          @Param("contestId") Long contestId,
+                                          @Param("userId") Long userId);
+    
+    interface VerdictView {
+        Long getSubmissionId();
+        Long getContestId();
+        Long getUserId();
+        String getUsername();
+        Long getProblemId();
+        SubmissionStatus getStatus();
+        Integer getScore();
+        LocalDateTime getSubmittedAt();
+        LocalDateTime getUpdatedAt();
+    }
+    
+    interface VerdictSummaryView {
+        Long getAttempts();
+        Integer getBestScore();
+        LocalDateTime getFirstAcceptedAt();
+        LocalDateTime getLastSubmittedAt();
+    }
+    
+    interface ProblemVerdictSummaryView extends VerdictSummaryView {
+        Long getProblemId();
+    }
+    
+    interface StatusView {
+        Long getId();
+        String getUsername();
+        Long getProblemId();
+        String getLanguage();
+        Boolean getSampleOnly();
+        SubmissionStatus getStatus();
+        String getResult();
+        Integer getExecutionTimeMs();
+        Integer getCpuTimeMs();
+        Integer getMemoryUsedMb();
+        Integer getScore();
+        LocalDateTime getSubmittedAt();
+    }
+}
@@ -0,0 +1,22 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.TestCase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
+    List<TestCase> findByProblemIdOrderByIdAsc(Long problemId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE TestCase t SET t.runCount = COALESCE(t.runCount, 0) + :runs, " +
+           "t.failureCount = COALESCE(t.failureCount, 0) + :failures WHERE t.id = :id")
+    int addOutcomes(@Param("id") Long id, @Param("runs") long runs, @Param("failures") long failures);
+}
@@ -0,0 +1,43 @@
+package ai.shodh.codingcontest.repository;
+
+import ai.shodh.codingcontest.model.UserProblemStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserProblemStatsRepository extends JpaRepository<UserProblemStats, Long> {
+    
+    Optional<UserProblemStats> findByUserIdAndProblemId(Long userId, Long problemId);
+    
+    List<UserProblemStats> findByUserIdAndContestIdOrderByProblemId(Long userId, Long contestId);
+    
+    /**
+     * Users that solved and users that attempted each problem of a contest
+     */
+    @Query("SELECT st.problemId AS problemId, COUNT(st.firstAcceptedAt) AS solvedBy, COUNT(st) AS attemptedBy " +
+           "FROM UserProblemStats st WHERE st.contestId = :contestId GROUP BY st.problemId")
+    List<ProblemCountsView> countByProblem(@Param("contestId") Long contestId);
+    
+    /**
+     * Summarize every user and problem with scored verdicts, for a table that was created after them
+     */
+    @Modifying
+    @Query("INSERT INTO UserProblemStats (userId, contestId, problemId, bestScore, attempts, firstAcceptedAt, lastSubmittedAt) " +
+           "SELECT s.user.id, s.contest.id, s.problem.id, COALESCE(MAX(s.score), 0), COUNT(s), " +
+           "MIN(CASE WHEN s.status = 'ACCEPTED' THEN s.submittedAt END), MAX(s.submittedAt) " +
+           "FROM Submission s WHERE s.sampleOnly = false AND s.status NOT IN ('PENDING', 'RUNNING') " +
+           "GROUP BY s.user.id, s.contest.id, s.problem.id")
+    int backfill();
+    
+    interface ProblemCountsView {
+        Long getProblemId();
+        Long getSolvedBy();
+        Long getAttemptedBy();
+    }
+}
@@ -14,6 +14,7 @@ public interface CodeExecutionService {
      * @param submission The submission to execute
      * @param testCases List of test cases to run against
      * @return ExecutionResult containing status and details
+     * @throws JudgingInterruptedException When the judging thread was interrupted before a verdict was reached
      */
     ExecutionResult executeCode(Submission submission, List<TestCase> testCases);
     
@@ -24,7 +25,18 @@ public interface CodeExecutionService {
         Submission.SubmissionStatus status,
         String result,
         Integer executionTimeMs,
+        Integer cpuTimeMs,
         Integer memoryUsedMb,
         Integer score
     ) {}
+    
+    /**
+     * Judging stopped because the thread was interrupted, typically on shutdown. The submission has
+     * no verdict and must go back to the queue.
+     */
+    class JudgingInterruptedException extends RuntimeException {
+        public JudgingInterruptedException(InterruptedException cause) {
+            super("Judging was interrupted", cause);
+        }
+    }
 }
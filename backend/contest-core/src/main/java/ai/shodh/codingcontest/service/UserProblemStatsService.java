@@ -0,0 +1,67 @@
+package ai.shodh.codingcontest.service;
+
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.model.UserProblemStats;
+import ai.shodh.codingcontest.repository.SubmissionRepository;
+import ai.shodh.codingcontest.repository.UserProblemStatsRepository;
+import ai.shodh.codingcontest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps user_problem_stats in step with verdicts. The row is recomputed from the user's scored
+ * submissions to the problem rather than adjusted, so rejudges that lower a score and verdicts
+ * written out of submission order need no special handling; the user's row is locked first, so
+ * workers writing verdicts of the same user do not overwrite each other's rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserProblemStatsService {
+    
+    private final UserProblemStatsRepository userProblemStatsRepository;
+    private final SubmissionRepository submissionRepository;
+    private final UserRepository userRepository;
+    
+    /**
+     * Recompute the stats row of a submission's user and problem, in the transaction writing its verdict
+     */
+    @Transactional
+    public void record(Submission submission) {
+        if (Boolean.TRUE.equals(submission.getSampleOnly())) {
+            return;
+        }
+        Long userId = submission.getUser().getId();
+        Long problemId = submission.getProblem().getId();
+        userRepository.lockById(userId);
+        
+        SubmissionRepository.VerdictSummaryView summary = submissionRepository.summarizeVerdicts(userId, problemId);
+        UserProblemStats stats = userProblemStatsRepository.findByUserIdAndProblemId(userId, problemId)
+            .orElseGet(() -> UserProblemStats.builder()
+                .userId(userId)
+                .contestId(submission.getContest().getId())
+                .problemId(problemId)
+                .build());
+        stats.setAttempts(summary.getAttempts().intValue());
+        stats.setBestScore(summary.getBestScore());
+        stats.setFirstAcceptedAt(summary.getFirstAcceptedAt());
+        stats.setLastSubmittedAt(summary.getLastSubmittedAt());
+        userProblemStatsRepository.save(stats);
+    }
+    
+    /**
+     * Fill the table from existing submissions when it is empty, as it is right after being created
+     */
+    @Transactional
+    public void backfillIfEmpty() {
+        if (userProblemStatsRepository.count() > 0) {
+            return;
+        }
+        int rows = userProblemStatsRepository.backfill();
+        if (rows > 0) {
+            log.info("Backfilled {} user problem stats rows from existing submissions", rows);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ai.shodh.codingcontest.service.judge;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Deficit round robin over flows identified by K, every job costing one unit.
+ *
+ * Each round a flow earns its weight in credit and is served while its credit lasts, so over
+ * time backlogged flows are served in proportion to their weights. A flow that runs out of
+ * work leaves the ring and loses its credit, it cannot save up for a burst later.
+ * Not thread safe.
+ */
+class DeficitRoundRobin<K> {
+
+    private static final long JOB_COST = 1;
+
+    private final Deque<K> ring = new ArrayDeque<>();
+    private final Map<K, Long> deficits = new HashMap<>();
+
+    /**
+     * @param backlogged Flows with at least one waiting job, new flows join the ring in iteration order
+     * @param weight Credit a flow earns per round, at least 1
+     * @return Flow to serve next, null when no flow is backlogged
+     */
+    K next(Collection<K> backlogged, ToLongFunction<K> weight) {
+        if (backlogged.isEmpty()) {
+            return null;
+        }
+        ring.retainAll(backlogged);
+        deficits.keySet().retainAll(backlogged);
+        for (K flow : backlogged) {
+            if (deficits.putIfAbsent(flow, 0L) == null) {
+                ring.addLast(flow);
+            }
+        }
+
+        while (true) {
+            K flow = ring.peekFirst();
+            long deficit = deficits.get(flow);
+            if (deficit >= JOB_COST) {
+                // Stays at the head while it has credit left for this round
+                deficits.put(flow, deficit - JOB_COST);
+                return flow;
+            }
+            deficits.put(flow, deficit + Math.max(1, weight.applyAsLong(flow)));
+            ring.addLast(ring.pollFirst());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.JudgeJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Decides which queued job a worker judges next.
+ *
+ * Jobs are grouped into flows by lane, contest and user. The priority lane (sample-only runs)
+ * is served before the standard lane, but at most priority-burst times in a row while standard
+ * jobs wait, so a stream of sample runs cannot starve graded submissions. The rejudge lane is
+ * only served while neither of them has jobs waiting. Within a lane, deficit
+ * round robin shares the workers first between contests, with currently active contests
+ * weighted higher, and then between the users of the chosen contest. A user flooding the queue
+ * therefore only delays their own submissions.
+ */
+@Component
+public class FairScheduler {
+
+    // Flow key for jobs queued before flows were recorded
+    private static final Long UNKNOWN = -1L;
+
+    // Share of an active contest relative to an inactive one (practice, or already ended)
+    @Value("${app.judge.scheduling.active-contest-weight:4}")
+    private long activeContestWeight;
+
+    // Priority jobs judged in a row before a waiting standard job gets a turn
+    @Value("${app.judge.scheduling.priority-burst:4}")
+    private int priorityBurst;
+
+    private final Map<JudgeJob.Lane, LaneScheduler> lanes = new EnumMap<>(JudgeJob.Lane.class);
+    private int priorityStreak;
+
+    /**
+     * Pick the next job and charge its flow for it
+     * @param flowHeads Oldest queued job of each flow, ordered by id
+     * @param activeContests Ids of the contests currently running
+     * @return Job to claim, null when flowHeads is empty
+     */
+    public synchronized JudgeJob pick(Collection<JudgeJob> flowHeads, Set<Long> activeContests) {
+        Map<JudgeJob.Lane, Map<Long, Map<Long, JudgeJob>>> byLane = new EnumMap<>(JudgeJob.Lane.class);
+        for (JudgeJob head : flowHeads) {
+            byLane.computeIfAbsent(laneOf(head), lane -> new LinkedHashMap<>())
+                .computeIfAbsent(Objects.requireNonNullElse(head.getContestId(), UNKNOWN), contest -> new LinkedHashMap<>())
+                .putIfAbsent(Objects.requireNonNullElse(head.getUserId(), UNKNOWN), head);
+        }
+
+        boolean priorityWaiting = byLane.containsKey(JudgeJob.Lane.PRIORITY);
+        boolean standardWaiting = byLane.containsKey(JudgeJob.Lane.STANDARD);
+        JudgeJob.Lane lane;
+        if (priorityWaiting && (!standardWaiting || priorityStreak < priorityBurst)) {
+            lane = JudgeJob.Lane.PRIORITY;
+            priorityStreak++;
+        } else if (standardWaiting) {
+            lane = JudgeJob.Lane.STANDARD;
+            priorityStreak = 0;
+        } else if (byLane.containsKey(JudgeJob.Lane.REJUDGE)) {
+            lane = JudgeJob.Lane.REJUDGE;
+        } else {
+            return null;
+        }
+
+        return lanes.computeIfAbsent(lane, l -> new LaneScheduler()).pick(byLane.get(lane), activeContests);
+    }
+
+    private static JudgeJob.Lane laneOf(JudgeJob job) {
+        return Objects.requireNonNullElse(job.getLane(), JudgeJob.Lane.STANDARD);
+    }
+
+    /**
+     * Two level deficit round robin, contests first and then users within the contest
+     */
+    private class LaneScheduler {
+
+        private final DeficitRoundRobin<Long> contests = new DeficitRoundRobin<>();
+        private final Map<Long, DeficitRoundRobin<Long>> usersByContest = new HashMap<>();
+
+        JudgeJob pick(Map<Long, Map<Long, JudgeJob>> headsByContest, Set<Long> activeContests) {
+            usersByContest.keySet().retainAll(headsByContest.keySet());
+            Long contest = contests.next(headsByContest.keySet(),
+                id -> activeContests.contains(id) ? activeContestWeight : 1);
+
+            Map<Long, JudgeJob> headsByUser = headsByContest.get(contest);
+            Long user = usersByContest.computeIfAbsent(contest, id -> new DeficitRoundRobin<>())
+                .next(headsByUser.keySet(), id -> 1);
+            return headsByUser.get(user);
+        }
+    }
+}
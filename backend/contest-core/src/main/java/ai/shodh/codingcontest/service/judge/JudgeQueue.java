@@ -0,0 +1,368 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.Contest;
+import ai.shodh.codingcontest.model.JudgeJob;
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.model.TestCase;
+import ai.shodh.codingcontest.repository.ContestRepository;
+import ai.shodh.codingcontest.repository.JudgeJobRepository;
+import ai.shodh.codingcontest.repository.SubmissionRepository;
+import ai.shodh.codingcontest.service.CodeExecutionService;
+import ai.shodh.codingcontest.service.UserProblemStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Durable queue of submissions waiting for a verdict, backed by the judge_jobs table.
+ *
+ * Workers claim jobs with SELECT ... FOR UPDATE SKIP LOCKED, so any number of workers
+ * (in this or other instances) can poll without blocking each other. Which queued job is
+ * claimed next is decided by the {@link FairScheduler}, and queued jobs for the same
+ * problem are claimed along with it as a batch. Workers embedded in the enqueuing instance
+ * are also woken in memory once the transaction commits, so a new submission does not wait
+ * for the next poll; standalone judge workers rely on polling.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeQueue {
+
+    private final JudgeJobRepository judgeJobRepository;
+    private final SubmissionRepository submissionRepository;
+    private final ContestRepository contestRepository;
+    private final FairScheduler fairScheduler;
+    private final UserProblemStatsService userProblemStatsService;
+
+    // One permit per job enqueued by this instance and not yet noticed by a worker
+    private final Semaphore enqueuedSignal = new Semaphore(0);
+
+    // Wake-ups kept for local workers; an API instance without embedded workers never drains them
+    private static final int MAX_PENDING_SIGNALS = 64;
+
+    // A claim older than this is considered abandoned by a crashed worker and is taken over
+    @Value("${app.judge.lease-seconds:600}")
+    private int leaseSeconds;
+
+    // Claims after which a job that keeps getting abandoned is failed instead of retried
+    @Value("${app.submission.max-retries:3}")
+    private int maxAttempts;
+
+    /**
+     * Add a submission to the queue as part of the caller's transaction
+     */
+    @Transactional
+    public void enqueue(Submission submission) {
+        save(jobFor(submission)
+            .lane(Boolean.TRUE.equals(submission.getSampleOnly()) ? JudgeJob.Lane.PRIORITY : JudgeJob.Lane.STANDARD)
+            .build());
+    }
+
+    /**
+     * Queue an already judged submission to be judged again. Its current verdict stays visible
+     * until the new one is written.
+     * @param rejudgeRunId Run the job belongs to, for progress tracking
+     */
+    @Transactional
+    public void enqueueRejudge(Submission submission, Long rejudgeRunId) {
+        save(jobFor(submission)
+            .lane(JudgeJob.Lane.REJUDGE)
+            .rejudgeRunId(rejudgeRunId)
+            .build());
+    }
+
+    private static JudgeJob.JudgeJobBuilder jobFor(Submission submission) {
+        return JudgeJob.builder()
+            .submissionId(submission.getId())
+            .userId(submission.getUser().getId())
+            .contestId(submission.getContest().getId())
+            .problemId(submission.getProblem().getId());
+    }
+
+    private void save(JudgeJob job) {
+        judgeJobRepository.save(job);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signalEnqueued();
+                }
+            });
+        } else {
+            signalEnqueued();
+        }
+    }
+
+    private void signalEnqueued() {
+        if (enqueuedSignal.availablePermits() < MAX_PENDING_SIGNALS) {
+            enqueuedSignal.release();
+        }
+    }
+
+    /**
+     * Wait for a job to be enqueued by this instance
+     * @param timeoutMs Maximum wait, 0 to only check
+     * @return Whether a job arrived in time
+     */
+    public boolean awaitEnqueued(long timeoutMs) throws InterruptedException {
+        return enqueuedSignal.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Claim the job chosen by the scheduler, together with queued jobs for the same problem
+     * from other flows, and mark their submissions as running
+     * @param workerId Identifies the claiming worker in the queue table
+     * @param maxJobs Largest batch to claim
+     * @return Claimed batch with its submissions and test cases loaded, empty when the queue is empty
+     */
+    @Transactional
+    public Optional<ClaimedBatch> claimBatch(String workerId, int maxJobs) {
+        while (true) {
+            List<JudgeJob> flowHeads = new ArrayList<>(judgeJobRepository.findQueuedFlowHeads());
+            Optional<JudgeJob> locked = lockScheduled(flowHeads);
+            if (locked.isEmpty()) {
+                // Stale claims left by crashed workers are taken over in plain id order
+                locked = judgeJobRepository.lockNextAvailable(LocalDateTime.now().minusSeconds(leaseSeconds));
+                if (locked.isEmpty()) {
+                    return Optional.empty();
+                }
+            }
+            JudgeJob job = locked.get();
+
+            Optional<ClaimedJob> claimed = claimLocked(job, workerId, false);
+            if (claimed.isEmpty()) {
+                continue;
+            }
+            Submission submission = claimed.get().submission();
+            List<ClaimedJob> jobs = new ArrayList<>();
+            jobs.add(claimed.get());
+            if (job.getProblemId() != null) {
+                jobs.addAll(claimBatchmates(flowHeads, job.getProblemId(), job.getLane(), workerId, maxJobs - 1, true));
+            }
+            // Copied once for the whole batch, so judging can run without touching the session
+            return Optional.of(new ClaimedBatch(submission.getProblem().getId(), job.getLane(),
+                new ArrayList<>(submission.getProblem().getTestCases()), jobs));
+        }
+    }
+
+    /**
+     * Claim more queued jobs for the problem of an open batch
+     * @param maxJobs Most jobs to add
+     * @return Newly claimed jobs, possibly none
+     */
+    @Transactional
+    public List<ClaimedJob> claimMore(ClaimedBatch batch, String workerId, int maxJobs) {
+        if (maxJobs <= 0) {
+            return List.of();
+        }
+        List<JudgeJob> flowHeads = new ArrayList<>(judgeJobRepository.findQueuedFlowHeads());
+        if (batch.lane() == JudgeJob.Lane.REJUDGE
+                && flowHeads.stream().anyMatch(head -> !isRejudge(head))) {
+            // Live submissions are waiting, the worker should get to them after this batch
+            return List.of();
+        }
+        return claimBatchmates(flowHeads, batch.problemId(), batch.lane(), workerId, maxJobs, false);
+    }
+
+    /**
+     * Claim the flow heads waiting for problemId in the same lane. Taking at most one job per
+     * flow keeps batches from letting one user's backlog overtake other users.
+     * @param problemLoaded Whether this transaction already loaded the problem and its test cases
+     */
+    private List<ClaimedJob> claimBatchmates(List<JudgeJob> flowHeads, Long problemId, JudgeJob.Lane lane,
+                                             String workerId, int maxJobs, boolean problemLoaded) {
+        List<ClaimedJob> claimed = new ArrayList<>();
+        for (JudgeJob head : flowHeads) {
+            if (claimed.size() >= maxJobs) {
+                break;
+            }
+            if (!problemId.equals(head.getProblemId()) || head.getLane() != lane) {
+                continue;
+            }
+            judgeJobRepository.lockIfQueued(head.getId())
+                .flatMap(job -> claimLocked(job, workerId, problemLoaded || !claimed.isEmpty()))
+                .ifPresent(claimed::add);
+        }
+        return claimed;
+    }
+
+    /**
+     * Mark a locked job as claimed, or drop it when its submission is gone or has used up its attempts
+     * @param problemLoaded Whether the problem and its test cases are already in the persistence context
+     * @return Claimed job, empty when the job was dropped
+     */
+    private Optional<ClaimedJob> claimLocked(JudgeJob job, String workerId, boolean problemLoaded) {
+        Optional<Submission> found = problemLoaded
+            ? submissionRepository.findById(job.getSubmissionId())
+            : submissionRepository.findWithTestCasesById(job.getSubmissionId());
+        if (found.isEmpty()) {
+            judgeJobRepository.delete(job);
+            return Optional.empty();
+        }
+        Submission submission = found.get();
+
+        if (job.getAttempts() >= maxAttempts) {
+            log.error("Giving up on submission {} after {} abandoned attempts", submission.getId(), job.getAttempts());
+            // A rejudge that keeps failing leaves the previous verdict in place
+            if (!isRejudge(job)) {
+                submission.setStatus(Submission.SubmissionStatus.RUNTIME_ERROR);
+                submission.setResult("System error: judging was interrupted repeatedly");
+                userProblemStatsService.record(submission);
+            }
+            judgeJobRepository.delete(job);
+            return Optional.empty();
+        }
+
+        job.setStatus(JudgeJob.JobStatus.CLAIMED);
+        job.setAttempts(job.getAttempts() + 1);
+        job.setClaimedBy(workerId);
+        // Millisecond precision survives every database, so the claim compares equal when read back
+        job.setClaimedAt(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        if (!isRejudge(job)) {
+            submission.setStatus(Submission.SubmissionStatus.RUNNING);
+        }
+        return Optional.of(new ClaimedJob(job.getId(), workerId, job.getAttempts(), job.getClaimedAt(),
+            submission, testCasesToRun(submission)));
+    }
+
+    /**
+     * Lock the queued job the scheduler picks, passing over jobs other workers hold locked
+     * @param flowHeads Queued flow heads, the picked job is removed from it
+     */
+    private Optional<JudgeJob> lockScheduled(List<JudgeJob> flowHeads) {
+        if (flowHeads.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<Long> contestIds = flowHeads.stream().map(JudgeJob::getContestId).collect(Collectors.toSet());
+        Set<Long> activeContests = contestRepository.findAllById(contestIds).stream()
+            .filter(Contest::isActive)
+            .map(Contest::getId)
+            .collect(Collectors.toSet());
+
+        while (!flowHeads.isEmpty()) {
+            JudgeJob next = fairScheduler.pick(flowHeads, activeContests);
+            flowHeads.remove(next);
+            Optional<JudgeJob> locked = judgeJobRepository.lockIfQueued(next.getId());
+            if (locked.isPresent()) {
+                return locked;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isRejudge(JudgeJob job) {
+        return job.getLane() == JudgeJob.Lane.REJUDGE;
+    }
+
+    /**
+     * Sample-only runs are judged on the sample test cases, or on the first test case when
+     * the problem marks none as sample
+     */
+    private static List<TestCase> testCasesToRun(Submission submission) {
+        List<TestCase> testCases = new ArrayList<>(submission.getProblem().getTestCases());
+        if (!Boolean.TRUE.equals(submission.getSampleOnly())) {
+            return testCases;
+        }
+        List<TestCase> samples = testCases.stream()
+            .filter(testCase -> Boolean.TRUE.equals(testCase.getIsSample()))
+            .collect(Collectors.toList());
+        return samples.isEmpty() ? new ArrayList<>(testCases.subList(0, Math.min(1, testCases.size()))) : samples;
+    }
+
+    /**
+     * Write the verdict of a claimed job, update the user's stats on the problem and remove the job from the queue.
+     * A job whose claim expired and was taken over by another worker, or that was cancelled, is left alone.
+     * @return Whether the verdict was written
+     */
+    @Transactional
+    public boolean complete(ClaimedJob job, CodeExecutionService.ExecutionResult result) {
+        if (lockIfStillClaimed(job).isEmpty()) {
+            log.warn("Dropping stale verdict of submission {}: job {} is no longer claimed by {} (attempt {})",
+                job.submission().getId(), job.jobId(), job.claimedBy(), job.attempt());
+            return false;
+        }
+        submissionRepository.findById(job.submission().getId()).ifPresent(submission -> {
+            submission.setStatus(result.status());
+            submission.setResult(result.result());
+            submission.setExecutionTimeMs(result.executionTimeMs());
+            submission.setCpuTimeMs(result.cpuTimeMs());
+            submission.setMemoryUsedMb(result.memoryUsedMb());
+            // Sample runs never earn points
+            submission.setScore(Boolean.TRUE.equals(submission.getSampleOnly()) ? 0 : result.score());
+            userProblemStatsService.record(submission);
+        });
+        judgeJobRepository.deleteById(job.jobId());
+        return true;
+    }
+
+    /**
+     * Return claimed jobs that were not judged to the queue, unless another worker took them over meanwhile
+     */
+    @Transactional
+    public void release(List<ClaimedJob> jobs) {
+        for (ClaimedJob claimed : jobs) {
+            lockIfStillClaimed(claimed).ifPresent(job -> {
+                job.setStatus(JudgeJob.JobStatus.QUEUED);
+                job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                job.setClaimedBy(null);
+                job.setClaimedAt(null);
+                if (!isRejudge(job)) {
+                    submissionRepository.findById(claimed.submission().getId())
+                        .ifPresent(submission -> submission.setStatus(Submission.SubmissionStatus.PENDING));
+                }
+            });
+        }
+    }
+
+    /**
+     * Lock a job's row if it still holds the given claim. Takeovers and re-claims bump the
+     * attempt or the claim time, so a worker that lost its claim cannot match again.
+     */
+    private Optional<JudgeJob> lockIfStillClaimed(ClaimedJob claimed) {
+        return judgeJobRepository.lockById(claimed.jobId())
+            .filter(job -> job.getStatus() == JudgeJob.JobStatus.CLAIMED
+                && claimed.claimedBy().equals(job.getClaimedBy())
+                && job.getAttempts() == claimed.attempt()
+                && claimed.claimedAt().equals(job.getClaimedAt()));
+    }
+
+    /**
+     * A job claimed by a worker, detached from the persistence context
+     * @param claimedBy Worker that holds the claim
+     * @param attempt Claim count of the job when it was claimed
+     * @param claimedAt When the claim was made
+     */
+    public record ClaimedJob(
+        Long jobId,
+        String claimedBy,
+        int attempt,
+        LocalDateTime claimedAt,
+        Submission submission,
+        List<TestCase> testCases
+    ) {}
+
+    /**
+     * Claimed jobs for one problem, sharing one copy of its test cases
+     */
+    public record ClaimedBatch(
+        Long problemId,
+        JudgeJob.Lane lane,
+        List<TestCase> testCases,
+        List<ClaimedJob> jobs
+    ) {}
+}
@@ -0,0 +1,20 @@
+package ai.shodh.codingcontest;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Headless judge: claims queued submissions from the shared database, judges them and
+ * writes the verdicts back. Run as many instances as needed next to the API.
+ */
+@SpringBootApplication
+public class JudgeWorkerApplication {
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(JudgeWorkerApplication.class)
+            .web(WebApplicationType.NONE)
+            // Reads judge-worker.yml, so the API's application.yml does not leak in when both are on the classpath
+            .properties("spring.config.name=judge-worker")
+            .run(args);
+    }
+}
@@ -11,13 +11,14 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
     
-    @Bean(name = "submissionExecutor")
-    public Executor submissionExecutor() {
+    @Bean(name = "testCaseExecutor")
+    public Executor testCaseExecutor() {
+        // Test case threads mostly wait on sandbox processes, fan-out per submission is bounded by the caller
+        int threads = Runtime.getRuntime().availableProcessors() * 2;
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Submission-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("TestCase-");
         executor.initialize();
         return executor;
     }
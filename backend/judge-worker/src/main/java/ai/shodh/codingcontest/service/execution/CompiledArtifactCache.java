@@ -0,0 +1,270 @@
+package ai.shodh.codingcontest.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of compiled artifacts (class files, binaries), keyed by a hash of
+ * the exact source that was compiled plus language and toolchain version.
+ *
+ * Two size-bounded LRU tiers: a small in-memory tier and a larger one on local disk that
+ * survives restarts. An artifact is a map from relative file path to file contents.
+ */
+@Component
+@Slf4j
+public class CompiledArtifactCache {
+
+    @Value("${app.execution.compile-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.execution.compile-cache.memory-max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${app.execution.compile-cache.disk-max-bytes:536870912}")
+    private long diskMaxBytes;
+
+    @Value("${app.execution.compile-cache.directory:${java.io.tmpdir}/compile-cache}")
+    private Path directory;
+
+    private final LinkedHashMap<String, Map<String, byte[]>> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    private long diskBytes = 0;
+    private boolean diskIndexLoaded = false;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong memoryEvictions = new AtomicLong();
+    private final AtomicLong diskEvictions = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compute the cache key for a compilation
+     * @param language Submission language
+     * @param toolchainVersion Compiler identity and version, so toolchain upgrades never reuse stale artifacts
+     * @param source Exact source text handed to the compiler
+     * @return Hex encoded SHA-256 key
+     */
+    public String key(String language, String toolchainVersion, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((language + '\0' + toolchainVersion + '\0').getBytes(StandardCharsets.UTF_8));
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public synchronized Optional<Map<String, byte[]>> get(String key) {
+        Map<String, byte[]> files = memoryEntries.get(key);
+        if (files == null) {
+            files = readFromDisk(key);
+            if (files != null) {
+                putInMemory(key, files);
+            }
+        }
+
+        if (files == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(files);
+    }
+
+    public synchronized void put(String key, Map<String, byte[]> files) {
+        if (memoryEntries.containsKey(key)) {
+            return;
+        }
+        putInMemory(key, files);
+        writeToDisk(key, files);
+    }
+
+    /**
+     * Collect files matching a glob below a directory into an artifact map, keyed by relative path
+     */
+    public static Map<String, byte[]> collectFiles(Path dir, String glob) throws IOException {
+        PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.filter(Files::isRegularFile).toList()) {
+                Path relative = dir.relativize(path);
+                if (matcher.matches(relative.getFileName())) {
+                    files.put(relative.toString(), Files.readAllBytes(path));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Write an artifact map into a directory, recreating its relative layout
+     */
+    public static void writeFiles(Map<String, byte[]> files, Path dir) throws IOException {
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            Path file = dir.resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue());
+        }
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(
+            hits.get(), misses.get(), memoryEvictions.get(), diskEvictions.get(),
+            memoryEntries.size(), memoryBytes, diskEntries.size(), diskBytes
+        );
+    }
+
+    private void putInMemory(String key, Map<String, byte[]> files) {
+        long size = sizeOf(files);
+        if (size > memoryMaxBytes) {
+            return;
+        }
+        memoryEntries.put(key, files);
+        memoryBytes += size;
+
+        Iterator<Map.Entry<String, Map<String, byte[]>>> eldest = memoryEntries.entrySet().iterator();
+        while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+            Map.Entry<String, Map<String, byte[]>> entry = eldest.next();
+            memoryBytes -= sizeOf(entry.getValue());
+            eldest.remove();
+            memoryEvictions.incrementAndGet();
+        }
+    }
+
+    private Map<String, byte[]> readFromDisk(String key) {
+        loadDiskIndex();
+        if (!diskEntries.containsKey(key)) {
+            return null;
+        }
+
+        Path entryDir = directory.resolve(key);
+        try {
+            Map<String, byte[]> files = collectFiles(entryDir, "*");
+            Files.setLastModifiedTime(entryDir, FileTime.fromMillis(System.currentTimeMillis()));
+            return files;
+        } catch (IOException e) {
+            log.warn("Dropping unreadable compile cache entry {}: {}", key, e.getMessage());
+            removeFromDisk(key);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Map<String, byte[]> files) {
+        loadDiskIndex();
+        if (diskEntries.containsKey(key)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path staging = Files.createTempDirectory(directory, ".staging");
+            writeFiles(files, staging);
+            Files.move(staging, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write compile cache entry {}: {}", key, e.getMessage());
+            return;
+        }
+
+        long size = sizeOf(files);
+        diskEntries.put(key, size);
+        diskBytes += size;
+
+        while (diskBytes > diskMaxBytes && !diskEntries.isEmpty()) {
+            removeFromDisk(diskEntries.keySet().iterator().next());
+            diskEvictions.incrementAndGet();
+        }
+    }
+
+    private void removeFromDisk(String key) {
+        Long size = diskEntries.remove(key);
+        if (size != null) {
+            diskBytes -= size;
+        }
+        deleteRecursively(directory.resolve(key));
+    }
+
+    /**
+     * Rebuild the disk LRU order from entry modification times left by a previous run
+     */
+    private void loadDiskIndex() {
+        if (diskIndexLoaded) {
+            return;
+        }
+        diskIndexLoaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> entries = Files.list(directory)) {
+            List<Path> entryDirs = entries
+                .filter(Files::isDirectory)
+                .filter(path -> !path.getFileName().toString().startsWith("."))
+                .sorted(Comparator.comparing(CompiledArtifactCache::lastModified))
+                .toList();
+            for (Path entryDir : entryDirs) {
+                long size = sizeOf(collectFiles(entryDir, "*"));
+                diskEntries.put(entryDir.getFileName().toString(), size);
+                diskBytes += size;
+            }
+            log.info("Loaded {} compile cache entries ({} bytes) from {}", diskEntries.size(), diskBytes, directory);
+        } catch (IOException e) {
+            log.warn("Failed to load compile cache index from {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOf(Map<String, byte[]> files) {
+        return files.values().stream().mapToLong(bytes -> bytes.length).sum();
+    }
+
+    private static void deleteRecursively(Path path) {
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    log.warn("Failed to delete compile cache file: {}", file);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Failed to delete compile cache entry: {}", path);
+        }
+    }
+
+    /**
+     * Counters for sizing the cache
+     */
+    public record CacheStats(
+        long hits,
+        long misses,
+        long memoryEvictions,
+        long diskEvictions,
+        int memoryEntries,
+        long memoryBytes,
+        int diskEntries,
+        long diskBytes
+    ) {}
+}
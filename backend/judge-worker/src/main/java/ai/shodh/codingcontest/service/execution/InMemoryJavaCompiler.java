@@ -0,0 +1,151 @@
+package ai.shodh.codingcontest.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Compiles Java sources inside the backend JVM through javax.tools, keeping sources
+ * and class bytes in memory. The system compiler is looked up once and reused, so
+ * submissions after the first one run on an already warmed-up javac.
+ */
+@Component
+@Slf4j
+public class InMemoryJavaCompiler {
+
+    private static final List<String> COMPILER_OPTIONS = List.of("-proc:none", "-nowarn");
+
+    @Value("${app.execution.java.in-process-compiler:true}")
+    private boolean enabled;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+    /**
+     * @return true when compilation should go through this compiler instead of a javac process
+     */
+    public boolean isAvailable() {
+        if (enabled && compiler == null) {
+            log.warn("In-process Java compiler requested but no system compiler is available (running on a JRE?)");
+        }
+        return enabled && compiler != null;
+    }
+
+    /**
+     * Compile a single compilation unit
+     * @param className Public class name of the unit, e.g. "Solution"
+     * @param source Java source code
+     * @return CompilationResult with class bytes on success or formatted diagnostics on failure
+     */
+    public CompilationResult compile(String className, String source) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, byte[]> classFiles = new LinkedHashMap<>();
+
+        try (StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics, null, null);
+             MemoryFileManager fileManager = new MemoryFileManager(standardFileManager, classFiles)) {
+            // Solutions only compile against the JDK, never against the backend's own classpath
+            standardFileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                null, fileManager, diagnostics, COMPILER_OPTIONS, null,
+                List.of(new SourceFile(className, source))
+            );
+            boolean success = task.call();
+
+            return new CompilationResult(success, success ? classFiles : Map.of(), formatDiagnostics(diagnostics));
+        } catch (IOException | RuntimeException e) {
+            log.error("In-process compilation failed: {}", e.getMessage());
+            return new CompilationResult(false, Map.of(), "Compiler error: " + e.getMessage());
+        }
+    }
+
+    private String formatDiagnostics(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder formatted = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            formatted.append(String.format("Line %d, column %d: %s%n",
+                diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic.getMessage(Locale.ROOT)));
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * Result of an in-memory compilation
+     */
+    public record CompilationResult(
+        boolean success,
+        Map<String, byte[]> classFiles,
+        String diagnostics
+    ) {
+        /**
+         * Write the compiled classes as .class files below the given directory
+         */
+        public void writeTo(Path directory) throws IOException {
+            for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                Path classFile = directory.resolve(entry.getKey().replace('.', '/') + ".class");
+                Files.createDirectories(classFile.getParent());
+                Files.write(classFile, entry.getValue());
+            }
+        }
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final String className;
+        private final Map<String, byte[]> classFiles;
+
+        ClassFile(String className, Map<String, byte[]> classFiles) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.className = className;
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    classFiles.put(className, toByteArray());
+                }
+            };
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classFiles;
+
+        MemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classFiles) {
+            super(fileManager);
+            this.classFiles = classFiles;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            return new ClassFile(className, classFiles);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package ai.shodh.codingcontest.service.execution;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+/**
+ * Entry point of a warm Java worker JVM started by {@link JavaWorkerPool}.
+ *
+ * Reads one tab separated command per line from stdin:
+ *   RUN classDir inputFile outputFile errorFile cpuLimitMs wallLimitMs
+ * and answers with exactly one line on stdout, ending in wall time, CPU time and peak heap usage:
+ *   OK ms cpuMs bytes | EXIT status ms cpuMs bytes | ERROR ms cpuMs bytes | MLE ms cpuMs bytes
+ *   | TIMEOUT ms cpuMs bytes
+ * followed by RETIRE when the solution left threads running. After a TIMEOUT or RETIRE reply
+ * the worker halts and the pool replaces it.
+ *
+ * Every run loads Solution through a new class loader, so static state never leaks between
+ * test cases. The loader rewrites the solution's calls to System.exit, Runtime.exit and
+ * Runtime.halt into calls to {@link #trappedExit(int)}, which ends the run instead of the JVM.
+ * Only call sites in the solution's own bytecode are rewritten: an exit reached through
+ * reflection, MethodHandles or native code still ends the worker, and the pool repeats that
+ * run in a JVM of its own.
+ * Heap pool peaks are reset before each run, so the reported peak belongs to that run alone.
+ * CPU time is that of the whole worker process while the solution runs, polled every CPU_POLL_MS.
+ *
+ * Must stay free of dependencies: this class and its nested classes are copied out of the
+ * application jar and launched on a plain classpath.
+ */
+public final class JavaWorkerMain {
+
+    private static final String EXIT_PREFIX = "worker-exit:";
+
+    private static final long CPU_POLL_MS = 10;
+
+    private static final com.sun.management.OperatingSystemMXBean OS =
+        (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in));
+        PrintStream replies = new PrintStream(new FileOutputStream(FileDescriptor.out), true);
+
+        String line;
+        while ((line = commands.readLine()) != null) {
+            String[] parts = line.split("\t");
+            if (parts.length != 7 || !"RUN".equals(parts[0])) {
+                replies.println("ERROR 0 0 0");
+                continue;
+            }
+            String reply = runSolution(Path.of(parts[1]), new File(parts[2]), new File(parts[3]),
+                new File(parts[4]), Long.parseLong(parts[5]), Long.parseLong(parts[6]));
+            replies.println(reply);
+
+            if (reply.startsWith("TIMEOUT") || reply.endsWith(" RETIRE")) {
+                // Solution threads cannot be stopped safely, the pool replaces this worker
+                Runtime.getRuntime().halt(1);
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Replaces System.exit in solutions: ends the calling thread of the solution with the exit status
+     */
+    public static void trappedExit(int status) {
+        throw new Error(EXIT_PREFIX + status);
+    }
+
+    /**
+     * Replaces Runtime.exit and Runtime.halt in solutions
+     */
+    public static void trappedExit(Runtime runtime, int status) {
+        trappedExit(status);
+    }
+
+    private static String runSolution(Path classDir, File inputFile, File outputFile, File errorFile,
+                                      long cpuLimitMs, long wallLimitMs) {
+        String[] outcome = {"OK"};
+        ThreadGroup solutionThreads = new ThreadGroup("solution");
+        System.gc();
+        resetHeapPeaks();
+        long startTime = System.currentTimeMillis();
+        long startCpuNanos = OS.getProcessCpuTime();
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(inputFile));
+             PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(outputFile)), false);
+             PrintStream err = new PrintStream(new FileOutputStream(errorFile), true)) {
+
+            System.setIn(in);
+            System.setOut(out);
+            System.setErr(err);
+
+            Method main = new SolutionLoader(classDir).loadClass("Solution").getMethod("main", String[].class);
+            // Threads the solution starts inherit the group, so leftovers can be found after the run
+            Thread solutionThread = new Thread(solutionThreads, () -> outcome[0] = invokeMain(main, err), "solution-main");
+            solutionThread.setDaemon(true);
+
+            solutionThread.start();
+            while (solutionThread.isAlive()) {
+                solutionThread.join(CPU_POLL_MS);
+                long cpuTimeMs = (OS.getProcessCpuTime() - startCpuNanos) / 1_000_000;
+                if (cpuTimeMs > cpuLimitMs || System.currentTimeMillis() - startTime > wallLimitMs) {
+                    return "TIMEOUT " + (System.currentTimeMillis() - startTime) + " " + cpuTimeMs + " " + heapPeak();
+                }
+            }
+            out.flush();
+        } catch (Exception | LinkageError e) {
+            writeError(errorFile, e);
+            outcome[0] = "ERROR";
+        }
+
+        return outcome[0] + " " + (System.currentTimeMillis() - startTime) + " "
+            + (OS.getProcessCpuTime() - startCpuNanos) / 1_000_000 + " " + heapPeak()
+            + (solutionThreads.activeCount() > 0 ? " RETIRE" : "");
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private static String invokeMain(Method main, PrintStream err) {
+        try {
+            main.invoke(null, (Object) new String[0]);
+            return "OK";
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OutOfMemoryError) {
+                err.println("Exception in thread \"main\" " + cause);
+                return "MLE";
+            }
+            if (cause.getClass() == Error.class && cause.getMessage() != null
+                    && cause.getMessage().startsWith(EXIT_PREFIX)) {
+                int status = Integer.parseInt(cause.getMessage().substring(EXIT_PREFIX.length()));
+                return status == 0 ? "OK" : "EXIT " + status;
+            }
+            err.print("Exception in thread \"main\" ");
+            cause.printStackTrace(err);
+            return "ERROR";
+        } catch (Throwable t) {
+            t.printStackTrace(err);
+            return "ERROR";
+        }
+    }
+
+    private static void writeError(File errorFile, Throwable error) {
+        try (PrintStream err = new PrintStream(new FileOutputStream(errorFile, true), true)) {
+            error.printStackTrace(err);
+        } catch (IOException ignored) {
+            // Nothing sensible left to report to
+        }
+    }
+
+    /**
+     * Loads a solution's classes from its class directory with their exit calls trapped.
+     * Delegates to the application class loader first, so solutions resolve {@link #trappedExit(int)}.
+     */
+    private static final class SolutionLoader extends ClassLoader {
+        private final Path classDir;
+
+        SolutionLoader(Path classDir) {
+            super("solution", ClassLoader.getSystemClassLoader());
+            this.classDir = classDir;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            try {
+                byte[] bytes = ExitCallRewriter.rewrite(Files.readAllBytes(classDir.resolve(name.replace('.', '/') + ".class")));
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (NoSuchFileException e) {
+                throw new ClassNotFoundException(name);
+            } catch (IOException | RuntimeException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    /**
+     * Rewrites a class file so its invokestatic System.exit(int) and invokevirtual Runtime.exit(int)
+     * and Runtime.halt(int) instructions call {@link #trappedExit} instead. The replacement method
+     * references are appended to the constant pool and the instructions patched in place; both
+     * forms take the same operands, so the stack and stack maps stay valid. Lambdas are covered
+     * since their bodies compile to methods of the enclosing class. Not covered: Method.invoke
+     * and MethodHandles, which look System.exit up at run time, and JNI.
+     */
+    private static final class ExitCallRewriter {
+        private static final int INVOKEVIRTUAL = 0xb6;
+        private static final int INVOKESTATIC = 0xb8;
+
+        private final byte[] bytes;
+        private final int[] entryOffsets;
+        private int position;
+
+        private ExitCallRewriter(byte[] bytes) {
+            this.bytes = bytes;
+            this.entryOffsets = new int[u2(8)];
+        }
+
+        static byte[] rewrite(byte[] classFile) {
+            return new ExitCallRewriter(classFile).rewrite();
+        }
+
+        private byte[] rewrite() {
+            position = 10;
+            for (int index = 1; index < entryOffsets.length; index++) {
+                entryOffsets[index] = position;
+                int tag = bytes[position] & 0xff;
+                position += switch (tag) {
+                    case 1 -> 3 + u2(position + 1);
+                    case 7, 8, 16, 19, 20 -> 3;
+                    case 15 -> 4;
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> 5;
+                    case 5, 6 -> 9;
+                    default -> throw new IllegalArgumentException("Unknown constant pool tag " + tag);
+                };
+                if (tag == 5 || tag == 6) {
+                    // Longs and doubles take two slots
+                    index++;
+                }
+            }
+            int poolEnd = position;
+
+            int count = entryOffsets.length;
+            int staticExit = count + 5;
+            int runtimeExit = count + 8;
+            boolean patched = false;
+
+            // access_flags, this_class, super_class, then interfaces and fields
+            position += 6;
+            position += 2 + 2 * u2(position);
+            skipMembers();
+            int methods = u2(position);
+            position += 2;
+            for (int i = 0; i < methods; i++) {
+                position += 6;
+                int attributes = u2(position);
+                position += 2;
+                for (int j = 0; j < attributes; j++) {
+                    int length = u4(position + 2);
+                    if ("Code".equals(utf8(u2(position)))) {
+                        int codeStart = position + 14;
+                        patched |= patchCode(codeStart, codeStart + u4(position + 10), staticExit, runtimeExit);
+                    }
+                    position += 6 + length;
+                }
+            }
+            if (!patched) {
+                return bytes;
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length + 128);
+            DataOutputStream data = new DataOutputStream(out);
+            try {
+                data.write(bytes, 0, 8);
+                data.writeShort(count + 9);
+                data.write(bytes, 10, poolEnd - 10);
+                // count: helper class name, +1 class, +2 method name, +3 (I)V, +4 name and type, +5 method
+                data.writeByte(1);
+                data.writeUTF(JavaWorkerMain.class.getName().replace('.', '/'));
+                data.writeByte(7);
+                data.writeShort(count);
+                data.writeByte(1);
+                data.writeUTF("trappedExit");
+                data.writeByte(1);
+                data.writeUTF("(I)V");
+                data.writeByte(12);
+                data.writeShort(count + 2);
+                data.writeShort(count + 3);
+                data.writeByte(10);
+                data.writeShort(count + 1);
+                data.writeShort(count + 4);
+                // +6 (Ljava/lang/Runtime;I)V, +7 name and type, +8 method
+                data.writeByte(1);
+                data.writeUTF("(Ljava/lang/Runtime;I)V");
+                data.writeByte(12);
+                data.writeShort(count + 2);
+                data.writeShort(count + 6);
+                data.writeByte(10);
+                data.writeShort(count + 1);
+                data.writeShort(count + 7);
+                data.write(bytes, poolEnd, bytes.length - poolEnd);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        private void skipMembers() {
+            int members = u2(position);
+            position += 2;
+            for (int i = 0; i < members; i++) {
+                position += 6;
+                int attributes = u2(position);
+                position += 2;
+                for (int j = 0; j < attributes; j++) {
+                    position += 6 + u4(position + 2);
+                }
+            }
+        }
+
+        /**
+         * @return Whether any instruction in [start, end) was patched
+         */
+        private boolean patchCode(int start, int end, int staticExit, int runtimeExit) {
+            boolean patched = false;
+            int pc = start;
+            while (pc < end) {
+                int opcode = bytes[pc] & 0xff;
+                if (opcode == INVOKESTATIC && isExitCall(u2(pc + 1), "java/lang/System", "exit")) {
+                    putU2(pc + 1, staticExit);
+                    patched = true;
+                } else if (opcode == INVOKEVIRTUAL && (isExitCall(u2(pc + 1), "java/lang/Runtime", "exit")
+                        || isExitCall(u2(pc + 1), "java/lang/Runtime", "halt"))) {
+                    bytes[pc] = (byte) INVOKESTATIC;
+                    putU2(pc + 1, runtimeExit);
+                    patched = true;
+                }
+                pc += instructionLength(pc, start);
+            }
+            return patched;
+        }
+
+        private boolean isExitCall(int methodRef, String owner, String name) {
+            int offset = entryOffsets[methodRef];
+            if (bytes[offset] != 10) {
+                return false;
+            }
+            int classOffset = entryOffsets[u2(offset + 1)];
+            int nameAndType = entryOffsets[u2(offset + 3)];
+            return owner.equals(utf8(u2(classOffset + 1)))
+                && name.equals(utf8(u2(nameAndType + 1)))
+                && "(I)V".equals(utf8(u2(nameAndType + 3)));
+        }
+
+        private int instructionLength(int pc, int codeStart) {
+            int opcode = bytes[pc] & 0xff;
+            switch (opcode) {
+                case 0xaa -> {
+                    // tableswitch: padding, default, low, high, then high - low + 1 offsets
+                    int operands = pc + 1 + (3 - (pc - codeStart) % 4);
+                    return operands - pc + 12 + 4 * (u4(operands + 8) - u4(operands + 4) + 1);
+                }
+                case 0xab -> {
+                    // lookupswitch: padding, default, npairs, then npairs match-offset pairs
+                    int operands = pc + 1 + (3 - (pc - codeStart) % 4);
+                    return operands - pc + 8 + 8 * u4(operands + 4);
+                }
+                case 0xc4 -> {
+                    // wide: iinc takes two 16-bit operands, loads, stores and ret one
+                    return (bytes[pc + 1] & 0xff) == 0x84 ? 6 : 4;
+                }
+                case 0x10, 0x12, 0x15, 0x16, 0x17, 0x18, 0x19, 0x36, 0x37, 0x38, 0x39, 0x3a, 0xa9, 0xbc -> {
+                    return 2;
+                }
+                case 0x11, 0x13, 0x14, 0x84, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xbb, 0xbd, 0xc0, 0xc1,
+                     0xc6, 0xc7 -> {
+                    return 3;
+                }
+                case 0xc5 -> {
+                    return 4;
+                }
+                case 0xb9, 0xba, 0xc8, 0xc9 -> {
+                    return 5;
+                }
+                default -> {
+                    // Conditional branches, goto and jsr take a 16-bit offset
+                    return opcode >= 0x99 && opcode <= 0xa8 ? 3 : 1;
+                }
+            }
+        }
+
+        private String utf8(int index) {
+            int offset = entryOffsets[index];
+            if (bytes[offset] != 1) {
+                return null;
+            }
+            return new String(bytes, offset + 3, u2(offset + 1), StandardCharsets.ISO_8859_1);
+        }
+
+        private int u2(int offset) {
+            return ((bytes[offset] & 0xff) << 8) | (bytes[offset + 1] & 0xff);
+        }
+
+        private int u4(int offset) {
+            return (u2(offset) << 16) | u2(offset + 2);
+        }
+
+        private void putU2(int offset, int value) {
+            bytes[offset] = (byte) (value >>> 8);
+            bytes[offset + 1] = (byte) value;
+        }
+    }
+}
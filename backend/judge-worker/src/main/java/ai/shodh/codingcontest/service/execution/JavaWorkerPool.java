@@ -0,0 +1,168 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of long-lived JVMs that run compiled Java solutions in-process,
+ * so a submission pays JVM startup once per worker instead of once per test case
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JavaWorkerPool extends WarmWorkerPool {
+
+    private static final String WORKER_CLASS = JavaWorkerMain.class.getName();
+
+    // Appended to a reply when the solution left threads running and the worker is going away
+    private static final String RETIRE_SUFFIX = " RETIRE";
+
+    private final ProcessWatchdog processWatchdog;
+
+    @Value("${app.execution.java.warm-runner:false}")
+    private boolean enabled;
+
+    @Value("${app.execution.java.warm-workers:2}")
+    private int poolSize;
+
+    @Value("${app.execution.java.worker-heap:256m}")
+    private String workerHeap;
+
+    private Path workerClasspath;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Create a runner that executes the Solution class compiled into classDir on warm workers
+     * @param classDir Directory containing Solution.class
+     * @param fallback Runs a test case in a JVM of its own when the solution took its worker down,
+     *                 through exit paths the worker cannot trap such as reflection or method handles
+     * @return TestRunner borrowing one worker per test case
+     */
+    public TestRunner runnerFor(Path classDir, TestRunner fallback) {
+        return (testCase, inputFile, limits) -> {
+            try {
+                return runOnWorker(classDir, testCase, inputFile, limits);
+            } catch (WorkerTerminatedException e) {
+                log.debug("Warm Java worker exited during a run, repeating it in a separate JVM");
+                return fallback.run(testCase, inputFile, limits);
+            }
+        };
+    }
+
+    private RunOutcome runOnWorker(Path classDir, TestCase testCase, Path inputFile, RunLimits limits)
+            throws IOException, InterruptedException {
+        Path outputFile = Files.createTempFile(classDir, "case", ".out");
+        Path errorFile = Files.createTempFile(classDir, "case", ".err");
+        long startedAt = System.nanoTime();
+
+        try {
+            // Solution threads that timed out or outlived the run cannot be stopped, so that worker
+            // halts and is replaced
+            String reply = request(r -> !r.startsWith("TIMEOUT") && !r.endsWith(RETIRE_SUFFIX),
+                limits.wallTimeLimitMs(), "RUN",
+                classDir.toString(), inputFile.toString(), outputFile.toString(), errorFile.toString(),
+                Long.toString(limits.cpuTimeLimitMs()), Long.toString(limits.wallTimeLimitMs()));
+
+            if (reply.endsWith(RETIRE_SUFFIX)) {
+                log.debug("Retiring warm Java worker, the solution left threads running");
+                reply = reply.substring(0, reply.length() - RETIRE_SUFFIX.length());
+            }
+            String[] parts = reply.split(" ");
+            long executionTime = Long.parseLong(parts[parts.length - 3]);
+            long cpuTime = Long.parseLong(parts[parts.length - 2]);
+            long peakMemory = Long.parseLong(parts[parts.length - 1]);
+            if ("TIMEOUT".equals(parts[0])) {
+                return RunOutcome.timeout(executionTime, cpuTime, peakMemory);
+            }
+
+            int exitCode = switch (parts[0]) {
+                case "OK" -> 0;
+                case "EXIT" -> Integer.parseInt(parts[1]);
+                default -> 1;
+            };
+            // Workers share one heap, so the per-problem limit is checked against the run's heap peak
+            boolean memoryLimitExceeded = "MLE".equals(parts[0]) || peakMemory > limits.memoryLimitBytes();
+            StreamingOutputChecker checker = new StreamingOutputChecker(testCase.getExpectedOutput(), limits.outputLimitBytes());
+            return new RunOutcome(
+                exitCode,
+                checker.check(outputFile),
+                StreamExcerpts.readExcerpt(errorFile, StreamExcerpts.STDERR_EXCERPT_BYTES),
+                false,
+                executionTime,
+                cpuTime,
+                peakMemory,
+                memoryLimitExceeded
+            );
+        } catch (WorkerTimeoutException e) {
+            log.warn("Warm Java worker stopped responding and was replaced: {}", e.getMessage());
+            return RunOutcome.timeout(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 0, 0);
+        } finally {
+            Files.deleteIfExists(outputFile);
+            Files.deleteIfExists(errorFile);
+        }
+    }
+
+    @Override
+    protected int poolSize() {
+        return poolSize;
+    }
+
+    @Override
+    protected ProcessWatchdog watchdog() {
+        return processWatchdog;
+    }
+
+    @Override
+    protected Process startWorkerProcess() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(
+            "java",
+            "-Xmx" + workerHeap,
+            "-XX:+UseSerialGC",
+            "-cp", workerClasspath().toString(),
+            WORKER_CLASS
+        );
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        log.info("Starting warm Java worker");
+        return builder.start();
+    }
+
+    /**
+     * Copy the worker class and its nested classes out of the application classpath (which may
+     * be a nested jar) into a plain directory the worker JVM can use as its classpath
+     */
+    private synchronized Path workerClasspath() throws IOException {
+        if (workerClasspath == null) {
+            Path root = Files.createTempDirectory("java_worker");
+            Path packageDir = root.resolve(JavaWorkerMain.class.getPackageName().replace('.', '/'));
+            Files.createDirectories(packageDir);
+            List<Class<?>> classes = new ArrayList<>(List.of(JavaWorkerMain.class));
+            classes.addAll(Arrays.asList(JavaWorkerMain.class.getDeclaredClasses()));
+            for (Class<?> workerClass : classes) {
+                String fileName = workerClass.getName().substring(workerClass.getPackageName().length() + 1) + ".class";
+                try (InputStream bytes = JavaWorkerMain.class.getResourceAsStream(fileName)) {
+                    if (bytes == null) {
+                        throw new IOException("Java worker class " + fileName + " not found on classpath");
+                    }
+                    Files.copy(bytes, packageDir.resolve(fileName));
+                }
+            }
+            workerClasspath = root;
+        }
+        return workerClasspath;
+    }
+}
@@ -0,0 +1,224 @@
+package ai.shodh.codingcontest.service.execution;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles C and C++ solutions with gcc/g++.
+ *
+ * C++ compiles use a precompiled bits/stdc++.h, which otherwise dominates g++ compile time.
+ * The header is precompiled once per compiler version and flag set into a directory put in
+ * front of the include path, where g++ picks the .gch up in place of the real header.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NativeCompiler {
+
+    public static final String BINARY_NAME = "solution";
+
+    private static final int COMPILE_TIMEOUT_SECONDS = 30;
+    private static final int PCH_TIMEOUT_SECONDS = 120;
+    // After a failed precompile, C++ compiles go without the header this long before it is tried again
+    private static final long PCH_RETRY_MINUTES = 5;
+
+    private final ProcessWatchdog processWatchdog;
+
+    @Value("${app.execution.cpp.compiler:g++}")
+    private String cppCompiler;
+
+    @Value("${app.execution.cpp.flags:-std=gnu++17 -O2 -pipe}")
+    private String cppFlags;
+
+    @Value("${app.execution.c.compiler:gcc}")
+    private String cCompiler;
+
+    @Value("${app.execution.c.flags:-std=gnu11 -O2 -pipe}")
+    private String cFlags;
+
+    @Value("${app.execution.cpp.precompiled-header:true}")
+    private boolean precompiledHeaderEnabled;
+
+    @Value("${app.execution.cpp.pch-directory:${java.io.tmpdir}/pch}")
+    private Path pchRoot;
+
+    private final Map<String, String> toolchainVersions = new ConcurrentHashMap<>();
+    private volatile Path pchIncludeDir;
+    // System.nanoTime() before which a failed precompile is not retried, null when none failed
+    private Long pchRetryAt;
+
+    /**
+     * @return Compiler name, version and flags for the language, part of every cache key
+     */
+    public String toolchain(Language language) throws IOException, InterruptedException {
+        String compiler = compiler(language);
+        String version = toolchainVersions.get(compiler);
+        if (version == null) {
+            ProcessResult result = runCompiler(List.of(compiler, "-dumpfullversion"), COMPILE_TIMEOUT_SECONDS);
+            if (result.exitCode() != 0) {
+                throw new IOException(compiler + " is not available: " + result.output());
+            }
+            version = result.output().trim();
+            toolchainVersions.put(compiler, version);
+        }
+        return compiler + " " + version + " " + flags(language);
+    }
+
+    /**
+     * Compile a single source file into outputDir/solution
+     * @return Compiler diagnostics, or null when compilation succeeded
+     */
+    public String compile(Language language, String source, Path outputDir) throws IOException, InterruptedException {
+        Path sourceFile = outputDir.resolve("solution" + language.extension);
+        Files.writeString(sourceFile, source);
+
+        List<String> command = new ArrayList<>();
+        command.add(compiler(language));
+        command.addAll(List.of(flags(language).split("\\s+")));
+        if (language == Language.CPP && source.contains("bits/stdc++.h")) {
+            Path includeDir = precompiledHeaderDir();
+            if (includeDir != null) {
+                command.add("-I" + includeDir);
+            }
+        }
+        command.addAll(List.of("-o", outputDir.resolve(BINARY_NAME).toString(), sourceFile.toString()));
+        if (language == Language.C) {
+            command.add("-lm");
+        }
+
+        ProcessResult result = runCompiler(command, COMPILE_TIMEOUT_SECONDS);
+        Files.deleteIfExists(sourceFile);
+        if (result.exitCode() != 0) {
+            return result.output().replace(outputDir + "/", "");
+        }
+        return null;
+    }
+
+    /**
+     * Build the precompiled header on first use
+     * @return Directory to put in front of the include path, or null when unavailable
+     */
+    private Path precompiledHeaderDir() throws InterruptedException {
+        if (!precompiledHeaderEnabled) {
+            return null;
+        }
+        if (pchIncludeDir != null) {
+            return pchIncludeDir;
+        }
+        synchronized (this) {
+            if (pchIncludeDir != null || (pchRetryAt != null && System.nanoTime() - pchRetryAt < 0)) {
+                return pchIncludeDir;
+            }
+            try {
+                // A PCH is only valid for the compiler and flags that built it
+                String toolchain = toolchain(Language.CPP);
+                Path includeDir = pchRoot.resolve(Integer.toHexString(toolchain.hashCode()));
+                Path gch = includeDir.resolve("bits/stdc++.h.gch");
+                if (!Files.exists(gch)) {
+                    buildPrecompiledHeader(gch);
+                }
+                pchIncludeDir = includeDir;
+                pchRetryAt = null;
+            } catch (IOException e) {
+                log.warn("Precompiled bits/stdc++.h unavailable, compiling without it for {} minutes: {}",
+                    PCH_RETRY_MINUTES, e.getMessage());
+                pchRetryAt = System.nanoTime() + TimeUnit.MINUTES.toNanos(PCH_RETRY_MINUTES);
+            }
+            return pchIncludeDir;
+        }
+    }
+
+    private void buildPrecompiledHeader(Path gch) throws IOException, InterruptedException {
+        log.info("Precompiling bits/stdc++.h into {}", gch);
+        Files.createDirectories(gch.getParent());
+        // Built next to its final place, so the move stays on one filesystem and can be atomic.
+        // The wrapper sits in a subdirectory, so only the .gch shadows the real header.
+        Path buildDir = Files.createTempDirectory(gch.getParent(), "pch_build");
+        try {
+            Path header = buildDir.resolve("stdc++.h");
+            Files.writeString(header, "#include <bits/stdc++.h>\n");
+            Path output = buildDir.resolve("stdc++.h.gch");
+
+            List<String> command = new ArrayList<>();
+            command.add(cppCompiler);
+            command.addAll(List.of(cppFlags.split("\\s+")));
+            command.addAll(List.of("-x", "c++-header", header.toString(), "-o", output.toString()));
+            ProcessResult result = runCompiler(command, PCH_TIMEOUT_SECONDS);
+            if (result.exitCode() != 0) {
+                throw new IOException("g++ failed: " + result.output());
+            }
+            Files.move(output, gch, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(buildDir.resolve("stdc++.h"));
+            Files.deleteIfExists(buildDir.resolve("stdc++.h.gch"));
+            Files.deleteIfExists(buildDir);
+        }
+    }
+
+    private String compiler(Language language) {
+        return language == Language.CPP ? cppCompiler : cCompiler;
+    }
+
+    private String flags(Language language) {
+        return language == Language.CPP ? cppFlags : cFlags;
+    }
+
+    private ProcessResult runCompiler(List<String> command, int timeoutSeconds)
+            throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        // g++ runs cc1plus, as and ld as children, a timeout kills all of them
+        ProcessWatchdog.Watch watch = processWatchdog.watch(process, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        // Diagnostics are drained concurrently, a long error listing would otherwise fill the pipe
+        byte[][] output = new byte[1][];
+        Thread reader = new Thread(() -> {
+            try {
+                output[0] = process.getInputStream().readAllBytes();
+            } catch (IOException e) {
+                output[0] = new byte[0];
+            }
+        }, "compiler-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        boolean timedOut;
+        try {
+            timedOut = watch.awaitExit();
+        } catch (InterruptedException e) {
+            watch.kill();
+            throw e;
+        }
+        if (timedOut) {
+            return new ProcessResult(-1, "Compilation timed out after " + timeoutSeconds + " seconds");
+        }
+        reader.join();
+        return new ProcessResult(process.exitValue(), new String(output[0], StandardCharsets.UTF_8));
+    }
+
+    private record ProcessResult(int exitCode, String output) {}
+
+    public enum Language {
+        C(".c"),
+        CPP(".cpp");
+
+        private final String extension;
+
+        Language(String extension) {
+            this.extension = extension;
+        }
+    }
+}
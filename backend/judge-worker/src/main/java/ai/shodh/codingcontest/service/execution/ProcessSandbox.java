@@ -0,0 +1,401 @@
+package ai.shodh.codingcontest.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Applies per-process memory and CPU time limits to sandboxed runs and measures their usage.
+ *
+ * When a delegated cgroup v2 subtree with the memory controller is available, every run gets
+ * its own child cgroup with memory.max set. The process moves itself into the cgroup before it
+ * execs the command, so everything it allocates or forks is limited and counted. Peak usage and
+ * OOM kills are read back from memory.peak and memory.events, and CPU time from cpu.stat. Otherwise limits fall back to the
+ * runtime's own flags (-Xmx) or an address-space rlimit, and peak RSS and CPU time are sampled
+ * from /proc/[pid]. In both modes the CPU time limit is enforced by killing the process tree.
+ */
+@Component
+@Slf4j
+public class ProcessSandbox {
+
+    private static final long SAMPLE_INTERVAL_MS = 10;
+
+    @Value("${app.execution.sandbox.cgroups:true}")
+    private boolean cgroupsEnabled;
+
+    @Value("${app.execution.sandbox.cgroup-root:/sys/fs/cgroup/judge}")
+    private Path cgroupRoot;
+
+    // Address space a runtime needs beyond its working set (shared libraries, thread stacks)
+    @Value("${app.execution.sandbox.address-space-slack-mb:64}")
+    private int addressSpaceSlackMb;
+
+    // Native JVM memory (metaspace, code cache, thread stacks) allowed on top of the -Xmx heap
+    @Value("${app.execution.sandbox.jvm-overhead-mb:64}")
+    private int jvmOverheadMb;
+
+    // Sandbox processes allowed to run at once, 0 for one per available core
+    @Value("${app.execution.sandbox.max-concurrent-runs:0}")
+    private int maxConcurrentRuns;
+
+    private Boolean cgroupsAvailable;
+    private Semaphore runPermits;
+
+    public long getJvmOverheadBytes() {
+        return jvmOverheadMb * 1024L * 1024L;
+    }
+
+    /**
+     * Wait until a sandboxed run may start, so CPU-heavy runs never oversubscribe the host.
+     * Every successful call must be paired with {@link #releaseRunPermit()}.
+     */
+    public void acquireRunPermit() throws InterruptedException {
+        runPermits().acquire();
+    }
+
+    public void releaseRunPermit() {
+        runPermits().release();
+    }
+
+    /**
+     * @return Sandboxed runs allowed at once
+     */
+    public int getMaxConcurrentRuns() {
+        return maxConcurrentRuns > 0 ? maxConcurrentRuns : Runtime.getRuntime().availableProcessors();
+    }
+
+    private synchronized Semaphore runPermits() {
+        if (runPermits == null) {
+            int permits = getMaxConcurrentRuns();
+            runPermits = new Semaphore(permits, true);
+            log.info("Sandbox allows {} concurrent runs", permits);
+        }
+        return runPermits;
+    }
+
+    public synchronized boolean isCgroupsAvailable() {
+        if (cgroupsAvailable == null) {
+            cgroupsAvailable = cgroupsEnabled && detectCgroups();
+            log.info("Sandbox memory limits via {}", cgroupsAvailable ? "cgroup v2 at " + cgroupRoot : "rlimit/-Xmx fallback");
+        }
+        return cgroupsAvailable;
+    }
+
+    /**
+     * Wrap a command so the process gets an address-space rlimit, unless cgroups enforce the limit.
+     * Not suitable for JVMs, which reserve far more address space than they use; limit those with -Xmx.
+     */
+    public List<String> limitAddressSpace(long memoryLimitBytes, String... command) {
+        if (isCgroupsAvailable()) {
+            return Arrays.asList(command);
+        }
+        long limitKb = addressSpaceLimitBytes(memoryLimitBytes) / 1024;
+        List<String> wrapped = new ArrayList<>(List.of("sh", "-c", "ulimit -v " + limitKb + " && exec \"$@\"", "sh"));
+        wrapped.addAll(Arrays.asList(command));
+        return wrapped;
+    }
+
+    /**
+     * @return Address-space rlimit that gives a process memoryLimitBytes of working set
+     */
+    public long addressSpaceLimitBytes(long memoryLimitBytes) {
+        return memoryLimitBytes + addressSpaceSlackMb * 1024L * 1024L;
+    }
+
+    /**
+     * Set up tracking of memory and CPU time for a process about to be started. The process must
+     * be started with {@link ResourceTracker#wrap(List)} applied to its command, then passed to
+     * {@link ResourceTracker#start(Process, long)}.
+     * @param memoryLimitBytes Hard limit for the process, enforced when cgroups are available
+     */
+    public ResourceTracker prepare(long memoryLimitBytes) {
+        if (isCgroupsAvailable()) {
+            try {
+                return new CgroupTracker(memoryLimitBytes);
+            } catch (IOException e) {
+                log.warn("Failed to create a cgroup, sampling instead: {}", e.getMessage());
+            }
+        }
+        return new ProcfsTracker();
+    }
+
+    private boolean detectCgroups() {
+        try {
+            return Files.isDirectory(cgroupRoot)
+                && Files.isWritable(cgroupRoot)
+                && Files.readString(cgroupRoot.resolve("cgroup.subtree_control")).contains("memory");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resource accounting for one sandboxed process
+     */
+    public interface ResourceTracker {
+        /**
+         * @return Command to start instead of the given one, so the process is tracked from its first instruction
+         */
+        List<String> wrap(List<String> command);
+
+        /**
+         * Start tracking the process started with the wrapped command
+         * @param cpuLimitMs CPU time (user + system) after which the process is killed
+         */
+        void start(Process process, long cpuLimitMs);
+
+        /**
+         * Stop tracking once the process has exited, or release resources when it never started
+         * @return Resources the process used
+         */
+        ResourceUsage finish();
+    }
+
+    /**
+     * Resources used by one sandboxed process
+     * @param peakMemoryBytes Peak memory usage, 0 when it could not be measured
+     * @param cpuTimeMs User plus system CPU time
+     * @param oomKilled true when the kernel killed the process for exceeding its memory limit
+     * @param cpuLimitExceeded true when the tracker killed the process for using too much CPU time
+     */
+    public record ResourceUsage(
+        long peakMemoryBytes,
+        long cpuTimeMs,
+        boolean oomKilled,
+        boolean cpuLimitExceeded
+    ) {}
+
+    /**
+     * Samples usage while the process runs and kills it once its CPU time passes the limit.
+     * Samples are taken every SAMPLE_INTERVAL_MS, so enforcement may lag by one interval.
+     */
+    private abstract static class SamplingTracker implements ResourceTracker {
+        private Thread sampler;
+        protected volatile long peakMemory;
+        protected volatile long cpuTimeMs;
+        private volatile boolean cpuLimitExceeded;
+
+        @Override
+        public List<String> wrap(List<String> command) {
+            return command;
+        }
+
+        @Override
+        public void start(Process process, long cpuLimitMs) {
+            started(process);
+            sampler = new Thread(() -> {
+                while (process.isAlive()) {
+                    sample();
+                    if (cpuTimeMs > cpuLimitMs) {
+                        cpuLimitExceeded = true;
+                        ProcessWatchdog.killTree(process.toHandle());
+                        return;
+                    }
+                    try {
+                        Thread.sleep(SAMPLE_INTERVAL_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "resource-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+
+        /**
+         * Called with the process before sampling starts
+         */
+        void started(Process process) {
+        }
+
+        /**
+         * Update peakMemory and cpuTimeMs from the running process
+         */
+        abstract void sample();
+
+        /**
+         * Read final figures after the process exited and release resources
+         * @return true when the kernel killed the process for exceeding its memory limit
+         */
+        abstract boolean complete();
+
+        @Override
+        public ResourceUsage finish() {
+            if (sampler != null) {
+                sampler.interrupt();
+                try {
+                    sampler.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            boolean oomKilled = complete();
+            return new ResourceUsage(peakMemory, cpuTimeMs, oomKilled, cpuLimitExceeded);
+        }
+    }
+
+    private final class CgroupTracker extends SamplingTracker {
+        private final Path cgroup;
+
+        CgroupTracker(long memoryLimitBytes) throws IOException {
+            cgroup = cgroupRoot.resolve("run-" + UUID.randomUUID());
+            Files.createDirectory(cgroup);
+            try {
+                Files.writeString(cgroup.resolve("memory.max"), Long.toString(memoryLimitBytes));
+                writeIfPresent(cgroup.resolve("memory.swap.max"), "0");
+            } catch (IOException e) {
+                Files.deleteIfExists(cgroup);
+                throw e;
+            }
+        }
+
+        /**
+         * The shell writes its own pid to cgroup.procs and then execs the command in place, so the
+         * command starts inside the cgroup under the same pid; it never runs if joining fails
+         */
+        @Override
+        public List<String> wrap(List<String> command) {
+            List<String> wrapped = new ArrayList<>(List.of("sh", "-c", "echo $$ > \"$0\" && exec \"$@\"",
+                cgroup.resolve("cgroup.procs").toString()));
+            wrapped.addAll(command);
+            return wrapped;
+        }
+
+        @Override
+        void sample() {
+            try {
+                cpuTimeMs = readCpuUsageMs();
+            } catch (IOException | NumberFormatException e) {
+                // Sampled again on the next tick
+            }
+        }
+
+        @Override
+        boolean complete() {
+            boolean oomKilled = false;
+            try {
+                // cgroup counters outlive the process, so these figures are exact
+                cpuTimeMs = readCpuUsageMs();
+                Path peakFile = cgroup.resolve("memory.peak");
+                peakMemory = Long.parseLong(Files.readString(Files.exists(peakFile) ? peakFile : cgroup.resolve("memory.current")).trim());
+                oomKilled = Files.readAllLines(cgroup.resolve("memory.events")).stream()
+                    .anyMatch(line -> line.startsWith("oom_kill ") && !line.endsWith(" 0"));
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Failed to read resource usage from {}: {}", cgroup, e.getMessage());
+            }
+            killRemaining();
+            try {
+                Files.deleteIfExists(cgroup);
+            } catch (IOException e) {
+                log.warn("Failed to remove cgroup {}: {}", cgroup, e.getMessage());
+            }
+            return oomKilled;
+        }
+
+        /**
+         * Kill processes the run left behind, including ones that detached from its process tree,
+         * and wait briefly for the cgroup to empty so it can be removed
+         */
+        private void killRemaining() {
+            Path kill = cgroup.resolve("cgroup.kill");
+            try {
+                if (Files.readString(cgroup.resolve("cgroup.procs")).isBlank() || !Files.exists(kill)) {
+                    return;
+                }
+                Files.writeString(kill, "1");
+                for (int i = 0; i < 50 && !Files.readString(cgroup.resolve("cgroup.procs")).isBlank(); i++) {
+                    Thread.sleep(2);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to kill leftover processes in {}: {}", cgroup, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private long readCpuUsageMs() throws IOException {
+            for (String line : Files.readAllLines(cgroup.resolve("cpu.stat"))) {
+                if (line.startsWith("usage_usec ")) {
+                    return Long.parseLong(line.substring("usage_usec ".length()).trim()) / 1000;
+                }
+            }
+            return 0;
+        }
+
+        private void writeIfPresent(Path file, String value) throws IOException {
+            if (Files.exists(file)) {
+                Files.writeString(file, value);
+            }
+        }
+    }
+
+    /**
+     * Samples VmHWM (peak resident set size) from /proc/[pid]/status and utime + stime from
+     * /proc/[pid]/stat while the process runs; /proc disappears on exit, so the last sample
+     * taken is the reported figure
+     */
+    private static final class ProcfsTracker extends SamplingTracker {
+        // USER_HZ, the unit of /proc/[pid]/stat times; 100 on every mainstream Linux build
+        private static final long CLOCK_TICKS_PER_SECOND = 100;
+
+        private Path status;
+        private Path stat;
+
+        @Override
+        void started(Process process) {
+            Path proc = Path.of("/proc", Long.toString(process.pid()));
+            status = proc.resolve("status");
+            stat = proc.resolve("stat");
+        }
+
+        @Override
+        void sample() {
+            peakMemory = Math.max(peakMemory, readVmHwm());
+            cpuTimeMs = Math.max(cpuTimeMs, readCpuTimeMs());
+        }
+
+        @Override
+        boolean complete() {
+            return false;
+        }
+
+        private long readVmHwm() {
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmHWM:")) {
+                        return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Process already exited
+            }
+            return 0;
+        }
+
+        private long readCpuTimeMs() {
+            try {
+                // The command name may contain spaces, fields are counted from after its closing parenthesis
+                String line = Files.readString(stat);
+                String[] fields = line.substring(line.lastIndexOf(')') + 2).split(" ");
+                // utime, stime, cutime, cstime are fields 14-17, i.e. 11-14 counted from the state field
+                long ticks = 0;
+                for (int i = 11; i <= 14; i++) {
+                    ticks += Long.parseLong(fields[i]);
+                }
+                return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+            } catch (IOException | RuntimeException e) {
+                // Process already exited
+                return 0;
+            }
+        }
+    }
+}
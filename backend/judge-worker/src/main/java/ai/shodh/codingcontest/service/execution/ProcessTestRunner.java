@@ -0,0 +1,132 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Runs every test case in a freshly started process
+ */
+@Slf4j
+public class ProcessTestRunner implements TestRunner {
+
+    private final Path workingDir;
+    private final ProcessSandbox sandbox;
+    private final ProcessWatchdog watchdog;
+    private final long memoryOverheadBytes;
+    private final long startupCpuMs;
+    private final List<String> command;
+
+    /**
+     * @param memoryOverheadBytes Memory the runtime itself may use on top of the problem limit
+     * @param startupCpuMs CPU time the runtime needs to start and exit; granted on top of the
+     *                     problem limit and left out of the reported CPU time
+     */
+    public ProcessTestRunner(Path workingDir, ProcessSandbox sandbox, ProcessWatchdog watchdog,
+                             long memoryOverheadBytes, long startupCpuMs, List<String> command) {
+        this.workingDir = workingDir;
+        this.sandbox = sandbox;
+        this.watchdog = watchdog;
+        this.memoryOverheadBytes = memoryOverheadBytes;
+        this.startupCpuMs = startupCpuMs;
+        this.command = command;
+    }
+
+    @Override
+    public RunOutcome run(TestCase testCase, Path inputFile, RunLimits limits) throws IOException, InterruptedException {
+        // stdin and stderr go through files, so neither side can block on a full pipe
+        Path errorFile = Files.createTempFile(workingDir, "case", ".err");
+        try {
+            return run(testCase, limits, inputFile, errorFile);
+        } finally {
+            Files.deleteIfExists(errorFile);
+        }
+    }
+
+    private RunOutcome run(TestCase testCase, RunLimits limits, Path inputFile, Path errorFile)
+            throws IOException, InterruptedException {
+        long startTime = System.currentTimeMillis();
+        log.debug("Running command: {} in directory: {}", command, workingDir);
+
+        long memoryLimitBytes = limits.memoryLimitBytes() + memoryOverheadBytes;
+        ProcessSandbox.ResourceTracker resourceTracker = sandbox.prepare(memoryLimitBytes);
+        ProcessBuilder runBuilder = new ProcessBuilder(resourceTracker.wrap(command));
+        runBuilder.directory(workingDir.toFile());
+        runBuilder.redirectInput(ProcessBuilder.Redirect.from(inputFile.toFile()));
+        runBuilder.redirectError(ProcessBuilder.Redirect.to(errorFile.toFile()));
+        Process runProcess;
+        try {
+            runProcess = runBuilder.start();
+        } catch (IOException e) {
+            resourceTracker.finish();
+            throw e;
+        }
+        resourceTracker.start(runProcess, limits.cpuTimeLimitMs() + startupCpuMs);
+        // The tracker kills the process once it exceeds its CPU time; the watchdog's wall-clock
+        // deadline only catches processes that block or sleep
+        ProcessWatchdog.Watch watch = watchdog.watch(runProcess, limits.wallTimeLimitMs() + startupCpuMs);
+
+        // Drain and check stdout while it is produced, killing the process tree as soon as the
+        // verdict is known. Killing through the handle keeps the pipe open so the reader still reaches EOF.
+        StreamingOutputChecker checker = new StreamingOutputChecker(testCase.getExpectedOutput(), limits.outputLimitBytes());
+        FutureTask<StreamingOutputChecker.OutputVerdict> stdoutCheck = startDaemon("stdout-checker",
+            () -> checker.check(runProcess.getInputStream(), watch::kill));
+
+        // Kill the process if this run gets cancelled
+        boolean timedOut;
+        try {
+            timedOut = watch.awaitExit();
+        } catch (InterruptedException e) {
+            watch.kill();
+            watch.exit().thenRun(resourceTracker::finish);
+            throw e;
+        }
+        long executionTime = System.currentTimeMillis() - startTime;
+
+        ProcessSandbox.ResourceUsage usage = resourceTracker.finish();
+        long cpuTimeMs = Math.max(0, usage.cpuTimeMs() - startupCpuMs);
+        if (timedOut || usage.cpuLimitExceeded()) {
+            return RunOutcome.timeout(executionTime, cpuTimeMs, usage.peakMemoryBytes());
+        }
+
+        int exitCode = runProcess.exitValue();
+        String stderr = StreamExcerpts.readExcerpt(errorFile, StreamExcerpts.STDERR_EXCERPT_BYTES);
+        // Covers java.lang.OutOfMemoryError (-Xmx), and Python's MemoryError and C++'s std::bad_alloc
+        // (address-space rlimit)
+        boolean memoryLimitExceeded = usage.oomKilled()
+            || usage.peakMemoryBytes() > memoryLimitBytes
+            || (exitCode != 0 && (stderr.contains("MemoryError") || stderr.contains("std::bad_alloc")));
+
+        return new RunOutcome(
+            exitCode,
+            await(stdoutCheck),
+            stderr,
+            false,
+            executionTime,
+            cpuTimeMs,
+            usage.peakMemoryBytes(),
+            memoryLimitExceeded
+        );
+    }
+
+    private static <T> FutureTask<T> startDaemon(String name, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        Thread thread = new Thread(future, name);
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    private static <T> T await(FutureTask<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read process output", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package ai.shodh.codingcontest.service.execution;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Enforces wall-clock deadlines of sandboxed and compiler processes from a single thread.
+ *
+ * Deadlines sit in a hashed timer wheel: an entry goes into the slot of its deadline tick
+ * modulo the wheel size and carries the number of full rotations left, so adding and
+ * cancelling a deadline cost O(1) however many processes run. At its deadline the whole
+ * process tree is killed, descendants first; destroying only the direct child would leave
+ * forked grandchildren running and holding the output pipe open. Processes that detached
+ * from the tree before the kill are only caught when cgroups are available.
+ */
+@Component
+@Slf4j
+public class ProcessWatchdog implements DisposableBean {
+
+    // Resolution of deadlines; a process is killed at most one tick after its deadline
+    @Value("${app.execution.watchdog.tick-ms:10}")
+    private long tickMs;
+
+    // Slots of the wheel; deadlines further than wheel-size ticks away wait for extra rotations
+    @Value("${app.execution.watchdog.wheel-size:512}")
+    private int wheelSize;
+
+    private final Queue<Deadline> added = new ConcurrentLinkedQueue<>();
+    private List<ArrayDeque<Deadline>> wheel;
+    private long tickNanos;
+    private long startedAt;
+    private Thread ticker;
+    private volatile boolean running;
+
+    /**
+     * Watch a started process and kill its tree once it runs longer than timeoutMs
+     */
+    public Watch watch(Process process, long timeoutMs) {
+        ensureStarted();
+        Deadline deadline = new Deadline(process.toHandle(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        added.add(deadline);
+        CompletableFuture<Boolean> exit = process.onExit().thenApply(exited -> {
+            deadline.cancelled = true;
+            return deadline.fired;
+        });
+        return new Watch(process.toHandle(), exit);
+    }
+
+    /**
+     * Kill a process tree unless the returned deadline is cancelled within timeoutMs. For processes
+     * that outlive a single run, such as warm workers, where the deadline covers one request.
+     */
+    public Deadline arm(Process process, long timeoutMs) {
+        ensureStarted();
+        Deadline deadline = new Deadline(process.toHandle(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+        added.add(deadline);
+        return deadline;
+    }
+
+    /**
+     * Kill a process and every descendant still attached to it
+     */
+    public static void killTree(ProcessHandle root) {
+        // Snapshot first: once the root is gone its children are reparented out of its tree
+        List<ProcessHandle> descendants = root.descendants().toList();
+        for (ProcessHandle descendant : descendants) {
+            descendant.destroyForcibly();
+        }
+        root.destroyForcibly();
+    }
+
+    private synchronized void ensureStarted() {
+        if (ticker != null) {
+            return;
+        }
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+        startedAt = System.nanoTime();
+        running = true;
+        ticker = new Thread(this::run, "process-watchdog");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long wakeAt = startedAt + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = wakeAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+                if (!running) {
+                    return;
+                }
+            }
+            schedule(tick);
+            expire(wheel.get((int) (tick % wheelSize)));
+            tick++;
+        }
+    }
+
+    /**
+     * Move deadlines added since the last tick into their slots
+     */
+    private void schedule(long tick) {
+        Deadline deadline;
+        while ((deadline = added.poll()) != null) {
+            if (deadline.cancelled) {
+                continue;
+            }
+            long dueTick = Math.max(0, deadline.dueAt - startedAt) / tickNanos;
+            deadline.rounds = Math.max(0, dueTick - tick) / wheelSize;
+            // Overdue deadlines go into the current slot
+            wheel.get((int) (Math.max(dueTick, tick) % wheelSize)).add(deadline);
+        }
+    }
+
+    private void expire(ArrayDeque<Deadline> slot) {
+        for (int i = slot.size(); i > 0; i--) {
+            Deadline deadline = slot.poll();
+            if (deadline.cancelled) {
+                continue;
+            }
+            if (deadline.rounds > 0) {
+                deadline.rounds--;
+                slot.add(deadline);
+                continue;
+            }
+            if (!deadline.fire()) {
+                continue;
+            }
+            try {
+                killTree(deadline.process);
+            } catch (RuntimeException e) {
+                log.warn("Failed to kill process {}: {}", deadline.process.pid(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        Thread thread;
+        synchronized (this) {
+            thread = ticker;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * A pending kill
+     */
+    public static final class Deadline {
+        private final ProcessHandle process;
+        private final long dueAt;
+        // Only touched by the ticker thread
+        private long rounds;
+        private volatile boolean cancelled;
+        private volatile boolean fired;
+
+        private Deadline(ProcessHandle process, long dueAt) {
+            this.process = process;
+            this.dueAt = dueAt;
+        }
+
+        /**
+         * Stop watching the process
+         * @return false when the deadline already fired and the process is being killed
+         */
+        public synchronized boolean cancel() {
+            cancelled = true;
+            return !fired;
+        }
+
+        private synchronized boolean fire() {
+            if (cancelled) {
+                return false;
+            }
+            fired = true;
+            return true;
+        }
+    }
+
+    /**
+     * A process under watch
+     */
+    public static final class Watch {
+        private final ProcessHandle process;
+        private final CompletableFuture<Boolean> exit;
+
+        private Watch(ProcessHandle process, CompletableFuture<Boolean> exit) {
+            this.process = process;
+            this.exit = exit;
+        }
+
+        /**
+         * Kill the process tree now, for example once the verdict is known
+         */
+        public void kill() {
+            killTree(process);
+        }
+
+        /**
+         * @return Completes when the process exited, with true when it was killed at its deadline
+         */
+        public CompletableFuture<Boolean> exit() {
+            return exit;
+        }
+
+        /**
+         * Wait for the process to exit
+         * @return Whether it was killed at its deadline
+         */
+        public boolean awaitExit() throws InterruptedException {
+            try {
+                return exit.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to wait for process " + process.pid(), e.getCause());
+            }
+        }
+    }
+}
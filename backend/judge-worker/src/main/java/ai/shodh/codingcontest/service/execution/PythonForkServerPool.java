@@ -0,0 +1,159 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of warm Python fork servers. Each test case runs in a child forked from a server that
+ * already has the interpreter and common modules loaded, so a submission pays interpreter
+ * startup once per server instead of once per test case.
+ *
+ * Children are limited with rlimits set by the server (CPU time, address space, file size),
+ * not with cgroups, because they are not started by this JVM. When a server cannot be started
+ * or exits without replying, test cases start python of their own until the pool is retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PythonForkServerPool extends WarmWorkerPool {
+
+    private static final String SERVER_SCRIPT = "/execution/python_fork_server.py";
+
+    // After a server failed, test cases start python of their own this long before servers are tried again
+    private static final long RETRY_MINUTES = 5;
+
+    private final ProcessSandbox processSandbox;
+    private final ProcessWatchdog processWatchdog;
+
+    @Value("${app.execution.python.fork-server:true}")
+    private boolean enabled;
+
+    @Value("${app.execution.python.fork-servers:2}")
+    private int poolSize;
+
+    @Value("${app.execution.python.executable:python}")
+    private String pythonExecutable;
+
+    private Path serverScript;
+    // System.nanoTime() before which servers are not started again, null while they work
+    private volatile Long retryAt;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Create a runner that executes sourceFile in children of warm fork servers
+     * @param sourceFile Solution source, compiled once per server and reused by later test cases
+     * @param fallback Runs a test case when no fork server is available
+     * @return TestRunner borrowing one server per test case
+     */
+    public TestRunner runnerFor(Path sourceFile, TestRunner fallback) {
+        return (testCase, inputFile, limits) -> {
+            Long retry = retryAt;
+            if (retry == null || System.nanoTime() - retry >= 0) {
+                try {
+                    RunOutcome outcome = runOnServer(sourceFile, testCase, inputFile, limits);
+                    retryAt = null;
+                    return outcome;
+                } catch (WorkerStartException | WorkerTerminatedException e) {
+                    // The solution runs in a forked child, so this is the server's own failure
+                    log.warn("Python fork server unavailable, starting python per test case for {} minutes: {}",
+                        RETRY_MINUTES, e.getMessage());
+                    retryAt = System.nanoTime() + TimeUnit.MINUTES.toNanos(RETRY_MINUTES);
+                }
+            }
+            return fallback.run(testCase, inputFile, limits);
+        };
+    }
+
+    private RunOutcome runOnServer(Path sourceFile, TestCase testCase, Path inputFile, RunLimits limits)
+            throws IOException, InterruptedException {
+        Path workingDir = sourceFile.getParent();
+        Path outputFile = Files.createTempFile(workingDir, "case", ".out");
+        Path errorFile = Files.createTempFile(workingDir, "case", ".err");
+        long startedAt = System.nanoTime();
+
+        try {
+            // The server outlives its children, so it stays reusable after every reply
+            String reply = request(r -> true, limits.wallTimeLimitMs(), "RUN",
+                sourceFile.toString(), inputFile.toString(), outputFile.toString(), errorFile.toString(),
+                Long.toString(limits.cpuTimeLimitMs()), Long.toString(limits.wallTimeLimitMs()),
+                Long.toString(processSandbox.addressSpaceLimitBytes(limits.memoryLimitBytes())),
+                Long.toString(limits.outputLimitBytes()));
+
+            String[] parts = reply.split(" ");
+            long executionTime = Long.parseLong(parts[parts.length - 3]);
+            long cpuTime = Long.parseLong(parts[parts.length - 2]);
+            long peakMemory = Long.parseLong(parts[parts.length - 1]);
+            if ("TIMEOUT".equals(parts[0])) {
+                return RunOutcome.timeout(executionTime, cpuTime, peakMemory);
+            }
+
+            int exitCode = "EXIT".equals(parts[0]) ? Integer.parseInt(parts[1]) : 0;
+            String stderr = StreamExcerpts.readExcerpt(errorFile, StreamExcerpts.STDERR_EXCERPT_BYTES);
+            StreamingOutputChecker checker = new StreamingOutputChecker(testCase.getExpectedOutput(), limits.outputLimitBytes());
+            return new RunOutcome(
+                exitCode,
+                checker.check(outputFile),
+                stderr,
+                false,
+                executionTime,
+                cpuTime,
+                peakMemory,
+                peakMemory > limits.memoryLimitBytes() || (exitCode != 0 && stderr.contains("MemoryError"))
+            );
+        } catch (WorkerTimeoutException e) {
+            // Children of a killed server are killed with it
+            log.warn("Python fork server stopped responding and was replaced: {}", e.getMessage());
+            return RunOutcome.timeout(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), 0, 0);
+        } finally {
+            Files.deleteIfExists(outputFile);
+            Files.deleteIfExists(errorFile);
+        }
+    }
+
+    @Override
+    protected int poolSize() {
+        return poolSize;
+    }
+
+    @Override
+    protected ProcessWatchdog watchdog() {
+        return processWatchdog;
+    }
+
+    @Override
+    protected Process startWorkerProcess() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(pythonExecutable, "-u", serverScript().toString());
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        log.info("Starting Python fork server");
+        return builder.start();
+    }
+
+    /**
+     * Copy the server script out of the application classpath (which may be a nested jar)
+     */
+    private synchronized Path serverScript() throws IOException {
+        if (serverScript == null) {
+            Path script = Files.createTempDirectory("python_fork_server").resolve("fork_server.py");
+            try (InputStream bytes = PythonForkServerPool.class.getResourceAsStream(SERVER_SCRIPT)) {
+                if (bytes == null) {
+                    throw new IOException("Python fork server script not found on classpath");
+                }
+                Files.copy(bytes, script);
+            }
+            serverScript = script;
+        }
+        return serverScript;
+    }
+}
@@ -0,0 +1,34 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.Problem;
+
+/**
+ * Resource limits applied to a single run of a solution
+ * @param timeLimitSeconds CPU time limit of the problem
+ * @param wallTimeLimitMs Wall-clock cap that stops runs blocked on input or sleeping
+ */
+public record RunLimits(
+    int timeLimitSeconds,
+    long wallTimeLimitMs,
+    long outputLimitBytes,
+    long memoryLimitBytes
+) {
+    public static final int DEFAULT_OUTPUT_LIMIT_MB = 64;
+    
+    /**
+     * @param wallTimeFactor Wall-clock cap as a multiple of the problem's CPU time limit
+     */
+    public static RunLimits forProblem(Problem problem, double wallTimeFactor) {
+        int outputLimitMb = problem.getOutputLimitMb() != null ? problem.getOutputLimitMb() : DEFAULT_OUTPUT_LIMIT_MB;
+        return new RunLimits(
+            problem.getTimeLimitSeconds(),
+            Math.round(problem.getTimeLimitSeconds() * 1000L * Math.max(1.0, wallTimeFactor)),
+            outputLimitMb * 1024L * 1024L,
+            problem.getMemoryLimitMb() * 1024L * 1024L
+        );
+    }
+    
+    public long cpuTimeLimitMs() {
+        return timeLimitSeconds * 1000L;
+    }
+}
@@ -0,0 +1,25 @@
+package ai.shodh.codingcontest.service.execution;
+
+/**
+ * Raw outcome of running a compiled solution against a single test input
+ * @param output Verdict of the streaming output check, null when the run timed out
+ * @param stderr Bounded excerpt of the error stream
+ * @param executionTimeMs Wall-clock time of the run
+ * @param cpuTimeMs User plus system CPU time of the run
+ * @param peakMemoryBytes Peak memory of the run, 0 when it could not be measured
+ * @param memoryLimitExceeded true when the run hit or exceeded its memory limit
+ */
+public record RunOutcome(
+    int exitCode,
+    StreamingOutputChecker.OutputVerdict output,
+    String stderr,
+    boolean timedOut,
+    long executionTimeMs,
+    long cpuTimeMs,
+    long peakMemoryBytes,
+    boolean memoryLimitExceeded
+) {
+    public static RunOutcome timeout(long executionTimeMs, long cpuTimeMs, long peakMemoryBytes) {
+        return new RunOutcome(-1, null, "", true, executionTimeMs, cpuTimeMs, peakMemoryBytes, false);
+    }
+}
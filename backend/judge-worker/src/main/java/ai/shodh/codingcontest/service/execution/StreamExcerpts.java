@@ -0,0 +1,35 @@
+package ai.shodh.codingcontest.service.execution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Helpers for keeping only a bounded prefix of process streams
+ */
+final class StreamExcerpts {
+    
+    static final int STDERR_EXCERPT_BYTES = 4096;
+    
+    private StreamExcerpts() {
+    }
+    
+    /**
+     * Read the first maxBytes bytes of a file, without loading the rest of it
+     */
+    static String readExcerpt(Path file, int maxBytes) throws IOException {
+        byte[] excerpt = new byte[maxBytes];
+        int length = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while (length < maxBytes && (read = in.read(excerpt, length, maxBytes - length)) != -1) {
+                length += read;
+            }
+        }
+        
+        String text = new String(excerpt, 0, length, StandardCharsets.UTF_8);
+        return Files.size(file) > length ? text + "\n... (truncated)" : text;
+    }
+}
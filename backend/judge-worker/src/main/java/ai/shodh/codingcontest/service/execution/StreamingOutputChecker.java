@@ -0,0 +1,217 @@
+package ai.shodh.codingcontest.service.execution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares program output with the expected output token by token while it is being read,
+ * using a fixed-size buffer, so the actual output is never held in memory as a whole.
+ * Tokens are separated by any ASCII whitespace; leading, trailing and repeated whitespace
+ * is ignored.
+ */
+public class StreamingOutputChecker {
+
+    public static final int BUFFER_SIZE = 8192;
+    public static final int EXCERPT_LENGTH = 64;
+
+    private final List<byte[]> expectedTokens;
+    private final long outputLimitBytes;
+
+    /**
+     * @param expectedOutput Expected output of the test case
+     * @param outputLimitBytes Maximum number of bytes the program may write
+     */
+    public StreamingOutputChecker(String expectedOutput, long outputLimitBytes) {
+        this.expectedTokens = tokenize(expectedOutput.getBytes(StandardCharsets.UTF_8));
+        this.outputLimitBytes = outputLimitBytes;
+    }
+
+    /**
+     * Read the actual output until EOF or until the verdict is known
+     * @param actual Program output
+     * @param abort Called when the verdict is decided before EOF, to stop the producing process
+     * @return OutputVerdict describing the first difference, if any
+     */
+    public OutputVerdict check(InputStream actual, Runnable abort) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long bytesRead = 0;
+        int tokenIndex = 0;      // index of the token being read
+        int tokenOffset = -1;    // position inside the current token, -1 between tokens
+        boolean tokenMatches = true;
+        byte[] excerpt = new byte[EXCERPT_LENGTH];
+        int excerptLength = 0;
+
+        int read;
+        while ((read = actual.read(buffer)) != -1) {
+            bytesRead += read;
+            if (bytesRead > outputLimitBytes) {
+                abort.run();
+                return OutputVerdict.outputLimitExceeded(bytesRead);
+            }
+
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (isWhitespace(b)) {
+                    if (tokenOffset >= 0) {
+                        if (!tokenMatches || tokenOffset != expectedTokens.get(tokenIndex).length) {
+                            abort.run();
+                            return mismatch(tokenIndex, excerpt, excerptLength, bytesRead, true);
+                        }
+                        tokenIndex++;
+                        tokenOffset = -1;
+                    }
+                    continue;
+                }
+
+                if (tokenOffset < 0) {
+                    if (tokenIndex >= expectedTokens.size()) {
+                        excerpt[0] = b;
+                        abort.run();
+                        return mismatch(tokenIndex, excerpt, 1, bytesRead, true);
+                    }
+                    tokenOffset = 0;
+                    tokenMatches = true;
+                    excerptLength = 0;
+                }
+
+                byte[] expectedToken = expectedTokens.get(tokenIndex);
+                if (tokenOffset >= expectedToken.length || expectedToken[tokenOffset] != b) {
+                    tokenMatches = false;
+                }
+                if (excerptLength < EXCERPT_LENGTH) {
+                    excerpt[excerptLength++] = b;
+                }
+                tokenOffset++;
+
+                // A token that already diverged or overran is wrong no matter how it continues
+                if (!tokenMatches && excerptLength >= EXCERPT_LENGTH) {
+                    abort.run();
+                    return mismatch(tokenIndex, excerpt, excerptLength, bytesRead, true);
+                }
+            }
+        }
+
+        if (tokenOffset >= 0) {
+            if (!tokenMatches || tokenOffset != expectedTokens.get(tokenIndex).length) {
+                return mismatch(tokenIndex, excerpt, excerptLength, bytesRead, false);
+            }
+            tokenIndex++;
+        }
+        if (tokenIndex < expectedTokens.size()) {
+            return mismatch(tokenIndex, excerpt, 0, bytesRead, false);
+        }
+        return OutputVerdict.match(bytesRead);
+    }
+
+    /**
+     * Check output that was redirected to a file, reading it through a memory mapping
+     * @param outputFile File holding the complete program output
+     * @return OutputVerdict describing the first difference, if any
+     */
+    public OutputVerdict check(Path outputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > outputLimitBytes) {
+                return OutputVerdict.outputLimitExceeded(size);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return check(new MappedInputStream(mapped), () -> { });
+        }
+    }
+
+    private OutputVerdict mismatch(int tokenIndex, byte[] actualExcerpt, int excerptLength, long bytesRead, boolean aborted) {
+        String expected = tokenIndex < expectedTokens.size()
+            ? excerpt(expectedTokens.get(tokenIndex))
+            : "<end of output>";
+        String actual = excerptLength == 0
+            ? "<end of output>"
+            : new String(actualExcerpt, 0, excerptLength, StandardCharsets.UTF_8);
+        return new OutputVerdict(OutputVerdict.Kind.MISMATCH, tokenIndex + 1, expected, actual, bytesRead, aborted);
+    }
+
+    private static String excerpt(byte[] token) {
+        int length = Math.min(token.length, EXCERPT_LENGTH);
+        String text = new String(token, 0, length, StandardCharsets.UTF_8);
+        return token.length > EXCERPT_LENGTH ? text + "..." : text;
+    }
+
+    private static List<byte[]> tokenize(byte[] text) {
+        List<byte[]> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length; i++) {
+            boolean boundary = i == text.length || isWhitespace(text[i]);
+            if (boundary && start >= 0) {
+                byte[] token = new byte[i - start];
+                System.arraycopy(text, start, token, 0, token.length);
+                tokens.add(token);
+                start = -1;
+            } else if (!boundary && start < 0) {
+                start = i;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0b;
+    }
+
+    private static final class MappedInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        MappedInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+
+    /**
+     * Result of comparing program output with the expected output
+     * @param tokenIndex 1-based index of the first differing token, 0 when not applicable
+     * @param aborted true when the checker stopped the process before it finished writing
+     */
+    public record OutputVerdict(
+        Kind kind,
+        long tokenIndex,
+        String expectedExcerpt,
+        String actualExcerpt,
+        long bytesRead,
+        boolean aborted
+    ) {
+        public enum Kind {
+            MATCH,
+            MISMATCH,
+            OUTPUT_LIMIT_EXCEEDED
+        }
+
+        static OutputVerdict match(long bytesRead) {
+            return new OutputVerdict(Kind.MATCH, 0, null, null, bytesRead, false);
+        }
+
+        static OutputVerdict outputLimitExceeded(long bytesRead) {
+            return new OutputVerdict(Kind.OUTPUT_LIMIT_EXCEEDED, 0, null, null, bytesRead, true);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+import ai.shodh.codingcontest.repository.TestCaseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orders test cases so that wrong submissions fail as early as possible: sample cases first,
+ * then hidden cases by how often they failed past submissions to the same problem.
+ *
+ * The order only decides how fast a verdict is reached, never which one: the judge reports the
+ * first case failing in problem order and runs whatever cases it takes to find it. Failure
+ * rates are bucketed so that a few new outcomes do not reshuffle the order, and ties keep the
+ * problem's own order. Outcomes are buffered in memory and added to the test case counters in
+ * the database every flush interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TestCaseOrdering {
+
+    private final TestCaseRepository testCaseRepository;
+
+    @Value("${app.execution.test-order.enabled:true}")
+    private boolean enabled;
+
+    // Runs before a case's failure rate is trusted, until then it keeps its place
+    @Value("${app.execution.test-order.min-runs:20}")
+    private long minRuns;
+
+    // Failure rates within one bucket count as equal
+    @Value("${app.execution.test-order.rate-bucket:0.05}")
+    private double rateBucket;
+
+    @Value("${app.execution.test-order.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    private final Map<Long, Counts> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastFlush = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * @param testCases Test cases in the problem's order
+     * @return The same test cases in the order to run them
+     */
+    public List<TestCase> order(List<TestCase> testCases) {
+        List<TestCase> ordered = new ArrayList<>(testCases);
+        if (!enabled) {
+            return ordered;
+        }
+        // List.sort is stable, so ties keep the problem's order
+        ordered.sort(Comparator
+            .comparing((TestCase testCase) -> !Boolean.TRUE.equals(testCase.getIsSample()))
+            .thenComparing(this::failureRateBucket, Comparator.reverseOrder()));
+        return ordered;
+    }
+
+    /**
+     * Count the outcome of a judged submission
+     * @param ran Test cases that were run
+     * @param failed The test case the submission failed, null when it passed all
+     */
+    public void record(List<TestCase> ran, TestCase failed) {
+        for (TestCase testCase : ran) {
+            pending.merge(testCase.getId(), new Counts(1, testCase == failed ? 1 : 0), Counts::plus);
+        }
+    }
+
+    /**
+     * Add buffered outcomes to the database once the flush interval passed. Each test case is
+     * updated in its own transaction; counts that failed to be written go back to the buffer.
+     */
+    public void flushIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastFlush.get();
+        if (now - last < flushIntervalMs || pending.isEmpty() || !lastFlush.compareAndSet(last, now)) {
+            return;
+        }
+        for (Long testCaseId : List.copyOf(pending.keySet())) {
+            Counts[] taken = new Counts[1];
+            pending.computeIfPresent(testCaseId, (id, counts) -> {
+                taken[0] = counts;
+                return null;
+            });
+            if (taken[0] == null) {
+                continue;
+            }
+            try {
+                testCaseRepository.addOutcomes(testCaseId, taken[0].runs(), taken[0].failures());
+            } catch (RuntimeException e) {
+                // Retried with the next flush, together with whatever was recorded meanwhile
+                pending.merge(testCaseId, taken[0], Counts::plus);
+                throw e;
+            }
+        }
+    }
+
+    private long failureRateBucket(TestCase testCase) {
+        Counts buffered = pending.getOrDefault(testCase.getId(), Counts.NONE);
+        long runs = valueOf(testCase.getRunCount()) + buffered.runs();
+        long failures = valueOf(testCase.getFailureCount()) + buffered.failures();
+        if (runs < minRuns) {
+            return 0;
+        }
+        return (long) ((double) failures / runs / rateBucket);
+    }
+
+    private static long valueOf(Long counter) {
+        return counter != null ? counter : 0;
+    }
+
+    private record Counts(long runs, long failures) {
+
+        static final Counts NONE = new Counts(0, 0);
+
+        Counts plus(Counts other) {
+            return new Counts(runs + other.runs, failures + other.failures);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Test inputs written to disk once per problem and shared by every run that needs them.
+ *
+ * Runs read their stdin straight from these files instead of each writing its own copy.
+ * A problem's files stay in place while it is pinned (for example by a batch of submissions
+ * to that problem) and are evicted least recently used once enough other problems were judged.
+ */
+@Component
+@Slf4j
+public class TestDataStore {
+
+    @Value("${app.execution.test-data.directory:${java.io.tmpdir}/testdata}")
+    private Path root;
+
+    // Unpinned problems whose inputs are kept on disk for later submissions
+    @Value("${app.execution.test-data.max-unpinned-problems:32}")
+    private int maxUnpinnedProblems;
+
+    private final Map<Long, ProblemData> problems = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Make sure the inputs of testCases are on disk and keep them there until the pin is closed
+     * @param problemId Problem the test cases belong to
+     */
+    public Pin pin(Long problemId, List<TestCase> testCases) throws IOException {
+        ProblemData data;
+        synchronized (this) {
+            data = problems.computeIfAbsent(problemId, id -> new ProblemData(root.resolve(Long.toString(id))));
+            data.pins++;
+        }
+        try {
+            Map<Long, Path> inputFiles = new HashMap<>();
+            for (TestCase testCase : testCases) {
+                inputFiles.put(testCase.getId(), data.inputFile(testCase));
+            }
+            return new Pin(data, inputFiles);
+        } catch (IOException | RuntimeException e) {
+            unpin(data);
+            throw e;
+        }
+    }
+
+    private synchronized void unpin(ProblemData data) {
+        data.pins--;
+        evictUnpinned();
+    }
+
+    private void evictUnpinned() {
+        long unpinned = problems.values().stream().filter(data -> data.pins == 0).count();
+        Iterator<ProblemData> leastRecentFirst = problems.values().iterator();
+        while (unpinned > maxUnpinnedProblems && leastRecentFirst.hasNext()) {
+            ProblemData data = leastRecentFirst.next();
+            if (data.pins == 0) {
+                leastRecentFirst.remove();
+                unpinned--;
+                data.delete();
+            }
+        }
+    }
+
+    /**
+     * Inputs of one problem pinned on disk, close to release them
+     */
+    public final class Pin implements AutoCloseable {
+
+        private final ProblemData data;
+        private final Map<Long, Path> inputFiles;
+        private boolean closed;
+
+        private Pin(ProblemData data, Map<Long, Path> inputFiles) {
+            this.data = data;
+            this.inputFiles = inputFiles;
+        }
+
+        /**
+         * @return File holding the input of testCase, which must have been pinned
+         */
+        public Path inputFile(TestCase testCase) {
+            Path inputFile = inputFiles.get(testCase.getId());
+            if (inputFile == null) {
+                throw new IllegalArgumentException("Test case " + testCase.getId() + " is not pinned");
+            }
+            return inputFile;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                unpin(data);
+            }
+        }
+    }
+
+    private static final class ProblemData {
+
+        private final Path directory;
+        // Guarded by the store
+        private int pins;
+
+        ProblemData(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Write the input on first use. The name includes a hash of the input, so an edited
+         * test case gets a new file instead of a stale one.
+         */
+        synchronized Path inputFile(TestCase testCase) throws IOException {
+            String input = testCase.getInput() + System.lineSeparator();
+            Path file = directory.resolve(testCase.getId() + "-" + Integer.toHexString(input.hashCode()) + ".in");
+            if (!Files.exists(file)) {
+                Files.createDirectories(directory);
+                Path staging = Files.createTempFile(directory, ".staging", ".in");
+                Files.writeString(staging, input);
+                Files.move(staging, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        }
+
+        synchronized void delete() {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        log.warn("Failed to delete test data file: {}", path);
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Failed to delete test data of {}: {}", directory, e.getMessage());
+            }
+        }
+    }
+}
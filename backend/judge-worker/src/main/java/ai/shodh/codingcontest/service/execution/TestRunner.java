@@ -0,0 +1,22 @@
+package ai.shodh.codingcontest.service.execution;
+
+import ai.shodh.codingcontest.model.TestCase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Strategy for running a compiled solution against one test case.
+ * Implementations decide how the program is launched (fresh process, warm worker, ...)
+ */
+@FunctionalInterface
+public interface TestRunner {
+    /**
+     * Run the solution with the test case input and check its output
+     * @param testCase Test case whose expected output is checked
+     * @param inputFile File holding the test case input, fed to the program as stdin
+     * @param limits Limits enforced on this run
+     * @return RunOutcome with exit status, output verdict and timing
+     */
+    RunOutcome run(TestCase testCase, Path inputFile, RunLimits limits) throws IOException, InterruptedException;
+}
@@ -0,0 +1,175 @@
+package ai.shodh.codingcontest.service.execution;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+/**
+ * Bounded pool of long-lived worker processes that take one tab separated command per line
+ * on stdin and answer with exactly one line on stdout. Workers enforce the limits of a run
+ * themselves; a worker that does not answer by the request deadline is killed by the
+ * watchdog and replaced, since a run inside it cannot be interrupted from here.
+ */
+abstract class WarmWorkerPool implements DisposableBean {
+
+    // Time past a run's wall limit a worker has to reply, covering its own startup, before it is killed
+    @Value("${app.execution.warm-worker-reply-slack-ms:5000}")
+    private long replySlackMs;
+
+    private final ConcurrentLinkedQueue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+    private Semaphore permits;
+
+    /**
+     * @return Maximum number of workers running commands at the same time
+     */
+    protected abstract int poolSize();
+
+    /**
+     * Start a new worker process, its stdin and stdout must be pipes
+     */
+    protected abstract Process startWorkerProcess() throws IOException;
+
+    protected abstract ProcessWatchdog watchdog();
+
+    /**
+     * Send one command to a worker, starting one if none is idle, and wait for its reply
+     * @param reusable Decides from the reply whether the worker may take further commands
+     * @param wallTimeLimitMs Wall limit of the run, the worker is killed when it has not replied
+     *                        within that plus the reply slack
+     * @param fields Command fields, joined with tabs
+     * @return Reply line
+     * @throws WorkerStartException When no worker was idle and none could be started
+     * @throws WorkerTimeoutException When the worker was killed at the deadline
+     * @throws WorkerTerminatedException When the worker exited without replying
+     */
+    protected String request(Predicate<String> reusable, long wallTimeLimitMs, String... fields)
+            throws IOException, InterruptedException {
+        long timeoutMs = wallTimeLimitMs + replySlackMs;
+        Semaphore workerPermits = permits();
+        workerPermits.acquire();
+        Worker worker = null;
+        boolean healthy = false;
+        try {
+            worker = borrowWorker();
+            ProcessWatchdog.Deadline deadline = watchdog().arm(worker.process, timeoutMs);
+            String reply;
+            try {
+                reply = worker.send(String.join("\t", fields));
+            } catch (IOException e) {
+                // A worker killed at the deadline breaks the pipe
+                throw deadline.cancel() ? e : new WorkerTimeoutException(timeoutMs);
+            }
+            if (!deadline.cancel()) {
+                throw new WorkerTimeoutException(timeoutMs);
+            }
+            if (reply == null) {
+                throw new WorkerTerminatedException();
+            }
+            healthy = reusable.test(reply);
+            return reply;
+        } finally {
+            releaseWorker(worker, healthy);
+            workerPermits.release();
+        }
+    }
+
+    private synchronized Semaphore permits() {
+        if (permits == null) {
+            permits = new Semaphore(Math.max(1, poolSize()));
+        }
+        return permits;
+    }
+
+    private Worker borrowWorker() throws IOException {
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            if (worker.isAlive()) {
+                return worker;
+            }
+            worker.destroy();
+        }
+        try {
+            return new Worker(startWorkerProcess());
+        } catch (IOException e) {
+            throw new WorkerStartException(e);
+        }
+    }
+
+    private void releaseWorker(Worker worker, boolean healthy) {
+        if (worker == null) {
+            return;
+        }
+        if (healthy && worker.isAlive()) {
+            idleWorkers.offer(worker);
+        } else {
+            worker.destroy();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.destroy();
+        }
+    }
+
+    /**
+     * A worker process could not be started
+     */
+    static final class WorkerStartException extends IOException {
+        WorkerStartException(IOException cause) {
+            super("Failed to start worker: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * The worker did not reply in time and was killed
+     */
+    static final class WorkerTimeoutException extends IOException {
+        WorkerTimeoutException(long timeoutMs) {
+            super("Worker did not reply within " + timeoutMs + " ms");
+        }
+    }
+
+    /**
+     * The worker exited while running a command, without replying
+     */
+    static final class WorkerTerminatedException extends IOException {
+        WorkerTerminatedException() {
+            super("Worker terminated unexpectedly");
+        }
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final BufferedWriter commands;
+        private final BufferedReader replies;
+
+        Worker(Process process) {
+            this.process = process;
+            this.commands = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.replies = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        String send(String command) throws IOException {
+            commands.write(command);
+            commands.newLine();
+            commands.flush();
+            return replies.readLine();
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ai.shodh.codingcontest.service.impl;
 import ai.shodh.codingcontest.model.Submission;
 import ai.shodh.codingcontest.model.TestCase;
 import ai.shodh.codingcontest.service.CodeExecutionService;
+import ai.shodh.codingcontest.service.CodeExecutionService.JudgingInterruptedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -37,19 +38,14 @@ public class MockCodeExecutionService implements CodeExecutionService {
                 status,
                 result,
                 100 + random.nextInt(400), // Random execution time 100-500ms
+                80 + random.nextInt(300),  // Random CPU time 80-380ms
                 32 + random.nextInt(96),   // Random memory usage 32-128MB
                 score
             );
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            return new ExecutionResult(
-                Submission.SubmissionStatus.RUNTIME_ERROR,
-                "Execution interrupted",
-                0,
-                0,
-                0
-            );
+            throw new JudgingInterruptedException(e);
         }
     }
     
@@ -0,0 +1,718 @@
+package ai.shodh.codingcontest.service.impl;
+
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.model.TestCase;
+import ai.shodh.codingcontest.service.CodeExecutionService;
+import ai.shodh.codingcontest.service.CodeExecutionService.JudgingInterruptedException;
+import ai.shodh.codingcontest.service.execution.CompiledArtifactCache;
+import ai.shodh.codingcontest.service.execution.InMemoryJavaCompiler;
+import ai.shodh.codingcontest.service.execution.JavaWorkerPool;
+import ai.shodh.codingcontest.service.execution.NativeCompiler;
+import ai.shodh.codingcontest.service.execution.ProcessSandbox;
+import ai.shodh.codingcontest.service.execution.ProcessTestRunner;
+import ai.shodh.codingcontest.service.execution.ProcessWatchdog;
+import ai.shodh.codingcontest.service.execution.PythonForkServerPool;
+import ai.shodh.codingcontest.service.execution.RunLimits;
+import ai.shodh.codingcontest.service.execution.RunOutcome;
+import ai.shodh.codingcontest.service.execution.StreamingOutputChecker;
+import ai.shodh.codingcontest.service.execution.TestCaseOrdering;
+import ai.shodh.codingcontest.service.execution.TestDataStore;
+import ai.shodh.codingcontest.service.execution.TestRunner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Real implementation of CodeExecutionService that actually executes code
+ * and validates against test cases
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RealCodeExecutionService implements CodeExecutionService {
+    
+    private final JavaWorkerPool javaWorkerPool;
+    private final PythonForkServerPool pythonForkServerPool;
+    private final InMemoryJavaCompiler inMemoryJavaCompiler;
+    private final NativeCompiler nativeCompiler;
+    private final CompiledArtifactCache compiledArtifactCache;
+    private final ProcessSandbox processSandbox;
+    private final ProcessWatchdog processWatchdog;
+    private final TestDataStore testDataStore;
+    private final TestCaseOrdering testCaseOrdering;
+    private final Executor testCaseExecutor;
+    
+    // Test cases of one submission that may run at the same time, 1 keeps strict sequential order
+    @Value("${app.execution.test-case-fan-out:1}")
+    private int testCaseFanOut;
+    
+    // Time limits are enforced on CPU time; runs are still stopped after this multiple in wall-clock time
+    @Value("${app.execution.wall-time-factor:3}")
+    private double wallTimeFactor;
+    
+    // Leave the CPU time a JVM needs to start and exit, measured once with an empty main, out of Java runs
+    @Value("${app.execution.java.subtract-startup-cpu:true}")
+    private boolean subtractJavaStartupCpu;
+    
+    // Runs of the empty program the JVM startup CPU time is the minimum of
+    private static final int STARTUP_BASELINE_RUNS = 3;
+    
+    private volatile Long javaStartupCpuMs;
+    
+    // ### CHANGE THIS #### - Adjust timeout if needed
+    // private static final int DEFAULT_TIMEOUT_SECONDS = 10;
+    // private static final String TEMP_DIR = System.getProperty("java.io.tmpdir");
+    
+    @Override
+    public ExecutionResult executeCode(Submission submission, List<TestCase> testCases) {
+        log.info("Executing code for submission {}", submission.getId());
+        
+        String language = submission.getLanguage().toLowerCase();
+        String code = submission.getCode();
+        
+        // Inputs stay on disk across runs, and across submissions while a batch holds the problem pinned
+        try (TestDataStore.Pin testData = testDataStore.pin(submission.getProblem().getId(), testCases)) {
+            return switch (language) {
+                case "java" -> executeJavaCode(code, testCases, testData, submission);
+                case "python", "python3" -> executePythonCode(code, testCases, testData, submission);
+                case "cpp", "c++" -> executeNativeCode(NativeCompiler.Language.CPP, code, testCases, testData, submission);
+                case "c" -> executeNativeCode(NativeCompiler.Language.C, code, testCases, testData, submission);
+                default -> new ExecutionResult(
+                    Submission.SubmissionStatus.COMPILATION_ERROR,
+                    "Unsupported language: " + language,
+                    0, 0, 0, 0
+                );
+            };
+        } catch (JudgingInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error executing code for submission {}: {}", submission.getId(), e.getMessage());
+            return new ExecutionResult(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                "System error: " + e.getMessage(),
+                0, 0, 0, 0
+            );
+        }
+    }
+    
+    private ExecutionResult executeJavaCode(String code, List<TestCase> testCases, TestDataStore.Pin testData,
+                                            Submission submission) {
+        try {
+            // Create temporary directory for this submission
+            Path tempDir = Files.createTempDirectory("submission_" + submission.getId());
+            
+            // Wrap user code in a proper class structure
+            String wrappedCode = wrapJavaCode(code);
+            
+            // Reuse class files from an identical earlier compilation when possible
+            boolean inMemory = inMemoryJavaCompiler.isAvailable();
+            String cacheKey = compiledArtifactCache.key(
+                "java", (inMemory ? "javax.tools " : "javac ") + Runtime.version(), wrappedCode);
+            Optional<Map<String, byte[]>> cachedClasses = compiledArtifactCache.isEnabled()
+                ? compiledArtifactCache.get(cacheKey)
+                : Optional.empty();
+            
+            if (cachedClasses.isPresent()) {
+                log.debug("Compile cache hit for submission {}", submission.getId());
+                CompiledArtifactCache.writeFiles(cachedClasses.get(), tempDir);
+            } else {
+                // Compile the Java code
+                String compilationError = inMemory
+                    ? compileJavaInMemory(wrappedCode, tempDir)
+                    : compileJavaWithJavac(wrappedCode, tempDir);
+                
+                if (compilationError != null) {
+                    cleanupTempDirectory(tempDir);
+                    return new ExecutionResult(
+                        Submission.SubmissionStatus.COMPILATION_ERROR,
+                        "Compilation failed: " + compilationError,
+                        0, 0, 0, 0
+                    );
+                }
+                
+                if (compiledArtifactCache.isEnabled()) {
+                    compiledArtifactCache.put(cacheKey, CompiledArtifactCache.collectFiles(tempDir, "*.class"));
+                }
+            }
+            
+            // Run test cases, in-process on a warm worker JVM when enabled
+            TestRunner coldRunner = new ProcessTestRunner(tempDir, processSandbox, processWatchdog,
+                processSandbox.getJvmOverheadBytes(), javaStartupCpuMs(), javaCommand(submission.getProblem().getMemoryLimitMb()));
+            TestRunner runner = javaWorkerPool.isEnabled() ? javaWorkerPool.runnerFor(tempDir, coldRunner) : coldRunner;
+            ExecutionResult result = runTestCases(runner, testCases, testData, submission);
+            
+            // Cleanup temporary files
+            cleanupTempDirectory(tempDir);
+            return result;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JudgingInterruptedException(e);
+        } catch (JudgingInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error executing Java code: {}", e.getMessage());
+            return new ExecutionResult(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                "Execution error: " + e.getMessage(),
+                0, 0, 0, 0
+            );
+        }
+    }
+    
+    private static List<String> javaCommand(int memoryLimitMb) {
+        return List.of("java", "-Xmx" + memoryLimitMb + "m", "Solution");
+    }
+    
+    /**
+     * @return CPU time a cold JVM spends starting and exiting around a solution, 0 when not subtracted
+     */
+    private long javaStartupCpuMs() {
+        if (!subtractJavaStartupCpu) {
+            return 0;
+        }
+        Long measured = javaStartupCpuMs;
+        if (measured == null) {
+            synchronized (this) {
+                if (javaStartupCpuMs == null) {
+                    javaStartupCpuMs = measureJavaStartupCpuMs();
+                }
+                measured = javaStartupCpuMs;
+            }
+        }
+        return measured != null ? measured : 0;
+    }
+    
+    /**
+     * Run an empty Solution the way submissions run and take the least CPU time over a few runs,
+     * so JVM boot, class loading and exit are not charged to solutions. The minimum keeps the
+     * subtraction conservative.
+     * @return Startup CPU time, null when interrupted so it is measured again later
+     */
+    private Long measureJavaStartupCpuMs() {
+        Path baselineDir = null;
+        try {
+            baselineDir = Files.createTempDirectory("jvm_baseline");
+            String source = "public class Solution { public static void main(String[] args) { } }";
+            String compilationError = inMemoryJavaCompiler.isAvailable()
+                ? compileJavaInMemory(source, baselineDir)
+                : compileJavaWithJavac(source, baselineDir);
+            if (compilationError != null) {
+                log.warn("Failed to compile the JVM startup baseline, charging startup to solutions: {}", compilationError);
+                return 0L;
+            }
+            Path inputFile = Files.createFile(baselineDir.resolve("empty.in"));
+            TestCase testCase = TestCase.builder().input("").expectedOutput("").build();
+            RunLimits limits = new RunLimits(10, 30_000, 1024, 256L * 1024 * 1024);
+            ProcessTestRunner runner = new ProcessTestRunner(baselineDir, processSandbox, processWatchdog,
+                processSandbox.getJvmOverheadBytes(), 0, javaCommand(256));
+            
+            long baseline = Long.MAX_VALUE;
+            for (int i = 0; i < STARTUP_BASELINE_RUNS; i++) {
+                RunOutcome outcome;
+                processSandbox.acquireRunPermit();
+                try {
+                    outcome = runner.run(testCase, inputFile, limits);
+                } finally {
+                    processSandbox.releaseRunPermit();
+                }
+                if (!outcome.timedOut() && outcome.exitCode() == 0) {
+                    baseline = Math.min(baseline, outcome.cpuTimeMs());
+                }
+            }
+            if (baseline == Long.MAX_VALUE) {
+                log.warn("JVM startup baseline runs failed, charging startup to solutions");
+                return 0L;
+            }
+            log.info("A cold JVM takes {} ms of CPU time to start and exit, not charged to Java solutions", baseline);
+            return baseline;
+        } catch (IOException e) {
+            log.warn("Failed to measure JVM startup, charging startup to solutions: {}", e.getMessage());
+            return 0L;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            if (baselineDir != null) {
+                cleanupTempDirectory(baselineDir);
+            }
+        }
+    }
+    
+    /**
+     * Compile with the warm in-process compiler and write the class files to outputDir
+     * @return Compiler diagnostics, or null when compilation succeeded
+     */
+    private String compileJavaInMemory(String wrappedCode, Path outputDir) throws IOException {
+        InMemoryJavaCompiler.CompilationResult compilation = inMemoryJavaCompiler.compile("Solution", wrappedCode);
+        if (!compilation.success()) {
+            return compilation.diagnostics();
+        }
+        compilation.writeTo(outputDir);
+        return null;
+    }
+    
+    /**
+     * Compile by starting a javac process in outputDir
+     * @return Compiler output, or null when compilation succeeded
+     */
+    private String compileJavaWithJavac(String wrappedCode, Path outputDir) throws IOException, InterruptedException {
+        Path javaFile = outputDir.resolve("Solution.java");
+        Files.write(javaFile, wrappedCode.getBytes());
+        
+        ProcessBuilder compileBuilder = new ProcessBuilder("javac", javaFile.toString());
+        compileBuilder.directory(outputDir.toFile());
+        Process compileProcess = compileBuilder.start();
+        ProcessWatchdog.Watch watch = processWatchdog.watch(compileProcess, TimeUnit.SECONDS.toMillis(30));
+        
+        boolean timedOut;
+        try {
+            timedOut = watch.awaitExit();
+        } catch (InterruptedException e) {
+            watch.kill();
+            throw e;
+        }
+        if (timedOut) {
+            return "Compilation timed out after 30 seconds";
+        }
+        if (compileProcess.exitValue() != 0) {
+            return readProcessError(compileProcess);
+        }
+        return null;
+    }
+    
+    private ExecutionResult executePythonCode(String code, List<TestCase> testCases, TestDataStore.Pin testData,
+                                              Submission submission) {
+        try {
+            // Create temporary directory for this submission
+            Path tempDir = Files.createTempDirectory("submission_" + submission.getId());
+            Path pythonFile = tempDir.resolve("solution.py");
+            
+            // ### CHANGE THIS #### - Modify Python code wrapping if needed
+            Files.write(pythonFile, code.getBytes());
+            
+            // Run test cases, forked from a warm interpreter when enabled
+            TestRunner coldRunner = new ProcessTestRunner(tempDir, processSandbox, processWatchdog, 0, 0,
+                processSandbox.limitAddressSpace(RunLimits.forProblem(submission.getProblem(), wallTimeFactor).memoryLimitBytes(),
+                    "python", "solution.py"));
+            TestRunner runner = pythonForkServerPool.isEnabled()
+                ? pythonForkServerPool.runnerFor(pythonFile, coldRunner)
+                : coldRunner;
+            ExecutionResult result = runTestCases(runner, testCases, testData, submission);
+            
+            // Cleanup temporary files
+            cleanupTempDirectory(tempDir);
+            return result;
+            
+        } catch (JudgingInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error executing Python code: {}", e.getMessage());
+            return new ExecutionResult(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                "Execution error: " + e.getMessage(),
+                0, 0, 0, 0
+            );
+        }
+    }
+    
+    private ExecutionResult executeNativeCode(NativeCompiler.Language language, String code,
+                                              List<TestCase> testCases, TestDataStore.Pin testData,
+                                              Submission submission) {
+        try {
+            // Create temporary directory for this submission
+            Path tempDir = Files.createTempDirectory("submission_" + submission.getId());
+            
+            // Reuse the binary from an identical earlier compilation when possible
+            String cacheKey = compiledArtifactCache.key(language.name(), nativeCompiler.toolchain(language), code);
+            Optional<Map<String, byte[]>> cachedBinary = compiledArtifactCache.isEnabled()
+                ? compiledArtifactCache.get(cacheKey)
+                : Optional.empty();
+            
+            if (cachedBinary.isPresent()) {
+                log.debug("Compile cache hit for submission {}", submission.getId());
+                CompiledArtifactCache.writeFiles(cachedBinary.get(), tempDir);
+                // File contents are cached without permissions
+                tempDir.resolve(NativeCompiler.BINARY_NAME).toFile().setExecutable(true);
+            } else {
+                String compilationError = nativeCompiler.compile(language, code, tempDir);
+                if (compilationError != null) {
+                    cleanupTempDirectory(tempDir);
+                    return new ExecutionResult(
+                        Submission.SubmissionStatus.COMPILATION_ERROR,
+                        "Compilation failed: " + compilationError,
+                        0, 0, 0, 0
+                    );
+                }
+                
+                if (compiledArtifactCache.isEnabled()) {
+                    compiledArtifactCache.put(cacheKey, CompiledArtifactCache.collectFiles(tempDir, NativeCompiler.BINARY_NAME));
+                }
+            }
+            
+            // Run test cases
+            ExecutionResult result = runTestCases(
+                new ProcessTestRunner(tempDir, processSandbox, processWatchdog, 0, 0, processSandbox.limitAddressSpace(
+                    RunLimits.forProblem(submission.getProblem(), wallTimeFactor).memoryLimitBytes(),
+                    "./" + NativeCompiler.BINARY_NAME)),
+                testCases, testData, submission);
+            
+            // Cleanup temporary files
+            cleanupTempDirectory(tempDir);
+            return result;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JudgingInterruptedException(e);
+        } catch (JudgingInterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error executing {} code: {}", language, e.getMessage());
+            return new ExecutionResult(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                "Execution error: " + e.getMessage(),
+                0, 0, 0, 0
+            );
+        }
+    }
+    
+    /**
+     * Run the test cases in fail-fast order. The verdict and score are those of the first test case
+     * failing in problem order, whatever order the cases ran in: once a case fails, the cases before
+     * it in problem order that have not run yet are run too, in problem order. Messages number test
+     * cases by their position in problemOrder, so they match what the problem shows.
+     */
+    private ExecutionResult runTestCases(TestRunner runner, List<TestCase> problemOrder, TestDataStore.Pin testData,
+                                         Submission submission) {
+        List<TestCase> testCases = testCaseOrdering.order(problemOrder);
+        Map<TestCase, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < problemOrder.size(); i++) {
+            positions.put(problemOrder.get(i), i + 1);
+        }
+        
+        List<CaseResult> results = new ArrayList<>(runInOrder(runner, testCases, positions, testData, submission));
+        CaseResult failure = null;
+        int failedPosition = 0;
+        if (!results.isEmpty() && !results.get(results.size() - 1).passed()) {
+            failure = results.get(results.size() - 1);
+            failedPosition = positions.get(testCases.get(results.size() - 1));
+            
+            Set<TestCase> ran = Collections.newSetFromMap(new IdentityHashMap<>());
+            ran.addAll(testCases.subList(0, results.size()));
+            List<TestCase> earlier = problemOrder.subList(0, failedPosition - 1).stream()
+                .filter(testCase -> !ran.contains(testCase))
+                .toList();
+            List<CaseResult> earlierResults = runInOrder(runner, earlier, positions, testData, submission);
+            results.addAll(earlierResults);
+            if (!earlierResults.isEmpty() && !earlierResults.get(earlierResults.size() - 1).passed()) {
+                failure = earlierResults.get(earlierResults.size() - 1);
+                failedPosition = positions.get(earlier.get(earlierResults.size() - 1));
+            }
+        }
+        
+        long totalExecutionTime = results.stream().mapToLong(CaseResult::executionTimeMs).sum();
+        long totalCpuTime = results.stream().mapToLong(CaseResult::cpuTimeMs).sum();
+        int peakMemoryMb = (int) (results.stream().mapToLong(CaseResult::peakMemoryBytes).max().orElse(0) / (1024 * 1024));
+        
+        if (failure != null) {
+            // Every case before the failing one in problem order ran and passed
+            return new ExecutionResult(
+                failure.status(),
+                failure.message(),
+                (int) totalExecutionTime,
+                (int) totalCpuTime,
+                peakMemoryMb,
+                calculatePartialScore(failedPosition - 1, problemOrder.size(), submission.getProblem().getPoints())
+            );
+        }
+        
+        // All test cases passed
+        return new ExecutionResult(
+            Submission.SubmissionStatus.ACCEPTED,
+            String.format("All %d test cases passed successfully!", problemOrder.size()),
+            (int) totalExecutionTime,
+            (int) totalCpuTime,
+            peakMemoryMb,
+            submission.getProblem().getPoints()
+        );
+    }
+    
+    /**
+     * Run test cases in the given order up to the first failure, and count the outcome for the ordering.
+     * Interrupted runs throw before anything is counted, they say nothing about the test cases.
+     * @return Results up to and including the first failing test case
+     */
+    private List<CaseResult> runInOrder(TestRunner runner, List<TestCase> testCases, Map<TestCase, Integer> positions,
+                                        TestDataStore.Pin testData, Submission submission) {
+        if (testCases.isEmpty()) {
+            return List.of();
+        }
+        int[] caseNumbers = testCases.stream().mapToInt(positions::get).toArray();
+        List<CaseResult> results = testCaseFanOut > 1 && testCases.size() > 1
+            ? runTestCasesConcurrently(runner, testCases, caseNumbers, positions.size(), testData, submission)
+            : runTestCasesSequentially(runner, testCases, caseNumbers, positions.size(), testData, submission);
+        
+        CaseResult last = results.isEmpty() ? null : results.get(results.size() - 1);
+        testCaseOrdering.record(testCases.subList(0, results.size()),
+                                last != null && !last.passed() ? testCases.get(results.size() - 1) : null);
+        return results;
+    }
+    
+    /**
+     * Run test cases one after another, stopping at the first failure
+     * @return Results up to and including the first failing test case
+     */
+    private List<CaseResult> runTestCasesSequentially(TestRunner runner, List<TestCase> testCases, int[] caseNumbers,
+                                                      int totalCases, TestDataStore.Pin testData, Submission submission) {
+        List<CaseResult> results = new ArrayList<>();
+        for (int i = 0; i < testCases.size(); i++) {
+            CaseResult caseResult = runTestCase(runner, testCases, i, caseNumbers[i], totalCases, testData, submission);
+            results.add(caseResult);
+            if (!caseResult.passed()) {
+                break;
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Run up to testCaseFanOut test cases at once. When a test case fails, every running or
+     * pending test case with a higher index is cancelled (killing its process), while lower
+     * indexes still finish so the reported failure is the same one sequential order would find.
+     * @return Results up to and including the lowest-index failing test case
+     */
+    private List<CaseResult> runTestCasesConcurrently(TestRunner runner, List<TestCase> testCases, int[] caseNumbers,
+                                                      int totalCases, TestDataStore.Pin testData, Submission submission) {
+        CompletionService<CaseResult> completionService = new ExecutorCompletionService<>(testCaseExecutor);
+        Map<Future<CaseResult>, Integer> running = new HashMap<>();
+        CaseResult[] results = new CaseResult[testCases.size()];
+        int firstFailure = testCases.size();
+        int next = 0;
+        
+        try {
+            while (true) {
+                while (running.size() < testCaseFanOut && next < firstFailure) {
+                    int index = next++;
+                    running.put(completionService.submit(
+                        () -> runTestCase(runner, testCases, index, caseNumbers[index], totalCases, testData, submission)), index);
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+                
+                Future<CaseResult> done = completionService.take();
+                Integer index = running.remove(done);
+                if (index == null || done.isCancelled()) {
+                    continue;
+                }
+                
+                CaseResult caseResult = done.get();
+                results[index] = caseResult;
+                if (!caseResult.passed() && index < firstFailure) {
+                    firstFailure = index;
+                    cancelAbove(running, index);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAbove(running, -1);
+            throw new JudgingInterruptedException(e);
+        } catch (ExecutionException e) {
+            cancelAbove(running, -1);
+            if (e.getCause() instanceof JudgingInterruptedException interrupted) {
+                // The run itself was interrupted without being cancelled, e.g. the executor shutting down
+                throw interrupted;
+            }
+            throw new IllegalStateException("Test case execution failed", e.getCause());
+        }
+        
+        return Arrays.asList(results).subList(0, Math.min(firstFailure + 1, testCases.size()));
+    }
+    
+    private void cancelAbove(Map<Future<CaseResult>, Integer> running, int index) {
+        running.entrySet().removeIf(entry -> {
+            if (entry.getValue() > index) {
+                entry.getKey().cancel(true);
+                return true;
+            }
+            return false;
+        });
+    }
+    
+    /**
+     * @param i Position of the test case in run order
+     * @param caseNumber Number of the test case shown in messages
+     * @param totalCases Test cases the submission is judged on, shown in messages
+     */
+    private CaseResult runTestCase(TestRunner runner, List<TestCase> testCases, int i, int caseNumber, int totalCases,
+                                   TestDataStore.Pin testData, Submission submission) {
+        TestCase testCase = testCases.get(i);
+        
+        try {
+            RunLimits limits = RunLimits.forProblem(submission.getProblem(), wallTimeFactor);
+            RunOutcome outcome;
+            processSandbox.acquireRunPermit();
+            try {
+                outcome = runner.run(testCase, testData.inputFile(testCase), limits);
+            } finally {
+                processSandbox.releaseRunPermit();
+            }
+            StreamingOutputChecker.OutputVerdict output = outcome.output();
+            
+            if (outcome.timedOut()) {
+                // Reaching the wall-clock cap means the run was typically blocked on input or sleeping
+                String message = outcome.executionTimeMs() < limits.wallTimeLimitMs()
+                    ? String.format("Time limit exceeded on test case %d (CPU time over %d ms)",
+                                caseNumber, limits.cpuTimeLimitMs())
+                    : String.format("Time limit exceeded on test case %d (wall-clock time over %d ms, CPU time %d ms)",
+                                caseNumber, limits.wallTimeLimitMs(), outcome.cpuTimeMs());
+                return CaseResult.failed(Submission.SubmissionStatus.TIME_LIMIT_EXCEEDED, message, outcome);
+            }
+            
+            if (outcome.memoryLimitExceeded()) {
+                return CaseResult.failed(
+                    Submission.SubmissionStatus.MEMORY_LIMIT_EXCEEDED,
+                    String.format("Memory limit exceeded on test case %d (limit %d MB)",
+                                caseNumber, limits.memoryLimitBytes() / (1024 * 1024)),
+                    outcome
+                );
+            }
+            
+            if (output.kind() == StreamingOutputChecker.OutputVerdict.Kind.OUTPUT_LIMIT_EXCEEDED) {
+                return CaseResult.failed(
+                    Submission.SubmissionStatus.OUTPUT_LIMIT_EXCEEDED,
+                    String.format("Output limit exceeded on test case %d (limit %d MB)",
+                                caseNumber, limits.outputLimitBytes() / (1024 * 1024)),
+                    outcome
+                );
+            }
+            
+            // A process killed by the checker exits abnormally, but its verdict is the wrong output
+            if (outcome.exitCode() != 0 && !output.aborted()) {
+                return CaseResult.failed(
+                    Submission.SubmissionStatus.RUNTIME_ERROR,
+                    String.format("Runtime error on test case %d: %s", caseNumber,
+                                outcome.stderr().isBlank() ? "exit code " + outcome.exitCode() : outcome.stderr()),
+                    outcome
+                );
+            }
+            
+            // Output was compared token by token while the program ran
+            if (output.kind() == StreamingOutputChecker.OutputVerdict.Kind.MISMATCH) {
+                return CaseResult.failed(
+                    Submission.SubmissionStatus.WRONG_ANSWER,
+                    String.format("Wrong answer on test case %d at token %d.\nExpected: %s\nActual: %s\n%d/%d test cases passed.", 
+                                caseNumber, output.tokenIndex(), output.expectedExcerpt(), output.actualExcerpt(),
+                                caseNumber - 1, totalCases),
+                    outcome
+                );
+            }
+            
+            log.debug("Test case {} passed for submission {}", caseNumber, submission.getId());
+            return CaseResult.passed(outcome);
+            
+        } catch (InterruptedException e) {
+            // Either a sibling test case failed and cancelled this one, whose result is then
+            // discarded, or judging is shutting down; neither is a verdict
+            Thread.currentThread().interrupt();
+            throw new JudgingInterruptedException(e);
+        } catch (Exception e) {
+            log.error("Error running test case {} for submission {}: {}", caseNumber, submission.getId(), e.getMessage());
+            return CaseResult.failed(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                String.format("Error on test case %d: %s", caseNumber, e.getMessage()),
+                null
+            );
+        }
+    }
+    
+    /**
+     * Outcome of a single test case, status is null when the test case passed
+     */
+    private record CaseResult(
+        Submission.SubmissionStatus status,
+        String message,
+        long executionTimeMs,
+        long cpuTimeMs,
+        long peakMemoryBytes
+    ) {
+        static CaseResult passed(RunOutcome outcome) {
+            return new CaseResult(null, null, outcome.executionTimeMs(), outcome.cpuTimeMs(), outcome.peakMemoryBytes());
+        }
+        
+        static CaseResult failed(Submission.SubmissionStatus status, String message, RunOutcome outcome) {
+            return outcome == null
+                ? new CaseResult(status, message, 0, 0, 0)
+                : new CaseResult(status, message, outcome.executionTimeMs(), outcome.cpuTimeMs(), outcome.peakMemoryBytes());
+        }
+        
+        boolean passed() {
+            return status == null;
+        }
+    }
+    
+    private String wrapJavaCode(String userCode) {
+        // ### CHANGE THIS #### - Modify Java code wrapping based on your problem format
+        // For now, assume user provides complete main method or we wrap it
+        if (userCode.contains("public static void main")) {
+            // User provided complete class, just add imports if needed
+            if (!userCode.contains("import")) {
+                return "import java.util.*;\nimport java.io.*;\n\n" + userCode;
+            }
+            return userCode;
+        } else {
+            // Wrap user code in main method
+            return String.format("""
+                import java.util.*;
+                import java.io.*;
+                
+                public class Solution {
+                    public static void main(String[] args) throws IOException {
+                        BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
+                        
+                        %s
+                    }
+                }
+                """, userCode);
+        }
+    }
+    
+    private String readProcessError(Process process) throws IOException {
+        StringBuilder error = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getErrorStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                error.append(line).append("\n");
+            }
+        }
+        return error.toString();
+    }
+    
+    private int calculatePartialScore(int passedTests, int totalTests, int maxPoints) {
+        if (totalTests == 0) return 0;
+        return (int) ((double) passedTests / totalTests * maxPoints);
+    }
+    
+    private void cleanupTempDirectory(Path tempDir) {
+        try {
+            Files.walk(tempDir)
+                .sorted((p1, p2) -> -p1.compareTo(p2)) // Delete files before directories
+                .forEach(path -> {
+                    try {
+                        Files.delete(path);
+                    } catch (IOException e) {
+                        log.warn("Failed to delete temporary file: {}", path, e);
+                    }
+                });
+        } catch (IOException e) {
+            log.warn("Failed to cleanup temporary directory: {}", tempDir, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ai.shodh.codingcontest.service.judge;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Judging throughput of this instance: completions over a sliding window and a moving
+ * average of how long a claimed job takes to judge.
+ */
+@Component
+public class JudgeThroughput {
+
+    // Weight of the newest job in the moving average of judging time
+    private static final double SMOOTHING = 0.2;
+
+    // Completions the observed throughput averages over
+    @Value("${app.judge.admission.throughput-window-seconds:60}")
+    private long windowSeconds;
+
+    private final long startedAt = System.nanoTime();
+    private final Deque<Long> completedAt = new ArrayDeque<>();
+    private double averageJobMs;
+
+    synchronized void recordCompletion(long judgingMs) {
+        long now = System.nanoTime();
+        completedAt.addLast(now);
+        prune(now);
+        averageJobMs = averageJobMs == 0 ? judgingMs : SMOOTHING * judgingMs + (1 - SMOOTHING) * averageJobMs;
+    }
+
+    /**
+     * @return Jobs completed per second over the window, 0 when none completed
+     */
+    public synchronized double observedJobsPerSecond() {
+        long now = System.nanoTime();
+        prune(now);
+        // Right after startup the window has not filled yet
+        double elapsedSeconds = Math.min(windowSeconds, Math.max(1.0, (now - startedAt) / 1e9));
+        return completedAt.size() / elapsedSeconds;
+    }
+
+    /**
+     * @return Moving average of the time from claim to verdict, 0 before the first completion
+     */
+    public synchronized double averageJobMs() {
+        return averageJobMs;
+    }
+
+    private void prune(long now) {
+        long cutoff = now - TimeUnit.SECONDS.toNanos(windowSeconds);
+        while (!completedAt.isEmpty() && completedAt.peekFirst() < cutoff) {
+            completedAt.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.JudgeWorker;
+import ai.shodh.codingcontest.repository.JudgeWorkerRepository;
+import ai.shodh.codingcontest.service.execution.CompiledArtifactCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes this instance's judging capacity to the judge_workers table, where the API
+ * reads it for admission control and the /api/judge/workers endpoint. The row is removed
+ * on a clean shutdown; rows of crashed instances stop being refreshed and age out.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeWorkerHeartbeat implements SmartLifecycle {
+
+    private final JudgeWorkerRepository judgeWorkerRepository;
+    private final JudgeWorkerPool judgeWorkerPool;
+    private final JudgeThroughput judgeThroughput;
+    private final CompiledArtifactCache compiledArtifactCache;
+
+    @Value("${app.judge.heartbeat-interval-ms:5000}")
+    private long heartbeatIntervalMs;
+
+    // Workers without a heartbeat for this long count as gone and their rows are deleted
+    @Value("${app.judge.admission.worker-timeout-seconds:30}")
+    private long workerTimeoutSeconds;
+
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "judge-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::beat, 0, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Registered judge worker {}", instanceId);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        try {
+            judgeWorkerRepository.deleteById(instanceId);
+        } catch (Exception e) {
+            log.warn("Failed to deregister judge worker {}: {}", instanceId, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // Register after the worker pool started, deregister before it stops
+        return judgeWorkerPool.getPhase() + 1;
+    }
+
+    private void beat() {
+        try {
+            CompiledArtifactCache.CacheStats cache = compiledArtifactCache.getStats();
+            LocalDateTime now = LocalDateTime.now();
+            judgeWorkerRepository.save(JudgeWorker.builder()
+                .id(instanceId)
+                .host(hostName())
+                .parallelism(judgeWorkerPool.parallelism())
+                .jobsPerSecond(judgeThroughput.observedJobsPerSecond())
+                .averageJobMs(judgeThroughput.averageJobMs())
+                .compileCacheHits(cache.hits())
+                .compileCacheMisses(cache.misses())
+                .compileCacheEntries(cache.memoryEntries() + cache.diskEntries())
+                .compileCacheMemoryEvictions(cache.memoryEvictions())
+                .compileCacheDiskEvictions(cache.diskEvictions())
+                .startedAt(startedAt)
+                .lastHeartbeat(now)
+                .build());
+            judgeWorkerRepository.deleteStale(now.minusSeconds(workerTimeoutSeconds));
+        } catch (Exception e) {
+            log.warn("Judge worker heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package ai.shodh.codingcontest.service.judge;
+
+import ai.shodh.codingcontest.model.Submission;
+import ai.shodh.codingcontest.service.CodeExecutionService;
+import ai.shodh.codingcontest.service.execution.ProcessSandbox;
+import ai.shodh.codingcontest.service.execution.TestCaseOrdering;
+import ai.shodh.codingcontest.service.execution.TestDataStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Judge threads that drain the {@link JudgeQueue}. Jobs are claimed in a short transaction,
+ * their code runs outside any transaction and each verdict is written back in another short
+ * transaction.
+ *
+ * Jobs are claimed in batches of submissions to the same problem, judged one after another
+ * with the problem's test inputs pinned on disk. A batch keeps taking newly queued submissions
+ * for its problem for up to max-delay after it was opened, which bounds how long a job can
+ * wait behind its batchmates; a worker never idles waiting for a batch to fill.
+ *
+ * In platform mode a fixed number of worker threads judge one job each at a time. In virtual
+ * mode a single dispatcher claims jobs and judges each batch on its own virtual thread. It
+ * claims a batch only while fewer batches are in flight than ProcessSandbox allows concurrent
+ * runs (and max-in-flight), so claimed jobs never wait on a busy host while another instance
+ * could judge them. Virtual threads need a Java 21 runtime (the build stays on Java 17); on
+ * older runtimes virtual mode falls back to platform workers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JudgeWorkerPool implements SmartLifecycle {
+
+    private final JudgeQueue judgeQueue;
+    private final CodeExecutionService codeExecutionService;
+    private final ProcessSandbox processSandbox;
+    private final TestDataStore testDataStore;
+    private final JudgeThroughput judgeThroughput;
+    private final TestCaseOrdering testCaseOrdering;
+
+    // "platform" for a fixed pool of worker threads, "virtual" for one virtual thread per job
+    @Value("${app.judge.dispatcher:platform}")
+    private String dispatcher;
+
+    @Value("${app.judge.workers:4}")
+    private int workerCount;
+
+    // Upper bound on batches judged at once in virtual mode, on top of the sandbox's concurrent runs
+    @Value("${app.judge.virtual.max-in-flight:256}")
+    private int maxInFlight;
+
+    // How often idle workers poll the queue table for jobs enqueued by other instances or left by crashes
+    @Value("${app.judge.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    // Most submissions to one problem judged together in a batch
+    @Value("${app.judge.batch.max-size:8}")
+    private int maxBatchSize;
+
+    // How long after it was opened a batch still takes newly queued submissions for its problem
+    @Value("${app.judge.batch.max-delay-ms:1000}")
+    private long maxBatchDelayMs;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private ExecutorService virtualThreads;
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        if ("virtual".equalsIgnoreCase(dispatcher)) {
+            virtualThreads = newVirtualThreadPerTaskExecutor();
+            if (virtualThreads == null) {
+                log.warn("Virtual threads need Java 21, running {} platform judge workers instead", workerCount);
+            }
+        }
+
+        if (virtualThreads != null) {
+            // Every batch needs a sandbox run to make progress, batches beyond that would sit on idle claims
+            int batchesInFlight = Math.max(1, Math.min(maxInFlight, processSandbox.getMaxConcurrentRuns()));
+            Semaphore inFlight = new Semaphore(batchesInFlight);
+            startThread("judge-dispatcher", () -> claimLoop(inFlight, (batch, workerId) -> virtualThreads.execute(() -> {
+                try {
+                    judgeBatch(batch, workerId);
+                } finally {
+                    inFlight.release();
+                }
+            })));
+            log.info("Started judge dispatcher on virtual threads, up to {} batches in flight", batchesInFlight);
+        } else {
+            for (int i = 1; i <= workerCount; i++) {
+                startThread("judge-worker-" + i, () -> claimLoop(null, this::judgeBatch));
+            }
+            log.info("Started {} judge workers", workerCount);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        if (virtualThreads != null) {
+            // Interrupted batches return their jobs to the queue on the way out
+            virtualThreads.shutdownNow();
+            try {
+                virtualThreads.awaitTermination(pollIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            virtualThreads = null;
+        }
+    }
+
+    /**
+     * @return Jobs this instance judges at once when busy
+     */
+    public int parallelism() {
+        int judgeSlots = "virtual".equalsIgnoreCase(dispatcher) && virtualThreads != null ? maxInFlight : workerCount;
+        return Math.max(1, Math.min(judgeSlots, processSandbox.getMaxConcurrentRuns()));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void startThread(String name, Runnable loop) {
+        Thread thread = new Thread(loop, name);
+        thread.start();
+        threads.add(thread);
+    }
+
+    /**
+     * Claim batches until stopped and pass each to handler along with the claiming worker's id
+     * @param capacity Permit taken per claimed batch and released by the handler, null when
+     *                 the handler judges synchronously
+     */
+    private void claimLoop(Semaphore capacity, BiConsumer<JudgeQueue.ClaimedBatch, String> handler) {
+        String workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + Thread.currentThread().getName();
+        boolean idle = false;
+
+        while (running) {
+            try {
+                if (capacity != null) {
+                    capacity.acquire();
+                }
+                boolean handedOver = false;
+                try {
+                    // Keep claiming without waiting while there is work, the table may hold a backlog
+                    judgeQueue.awaitEnqueued(idle ? pollIntervalMs : 0);
+                    Optional<JudgeQueue.ClaimedBatch> batch = judgeQueue.claimBatch(workerId, maxBatchSize);
+                    idle = batch.isEmpty();
+                    if (batch.isPresent()) {
+                        handedOver = true;
+                        handler.accept(batch.get(), workerId);
+                    }
+                } finally {
+                    if (capacity != null && !handedOver) {
+                        capacity.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Judge worker failed to claim a job: {}", e.getMessage());
+                idle = true;
+            }
+        }
+    }
+
+    private void judgeBatch(JudgeQueue.ClaimedBatch batch, String workerId) {
+        long openedAt = System.nanoTime();
+        Deque<JudgeQueue.ClaimedJob> pending = new ArrayDeque<>(batch.jobs());
+        int claimed = pending.size();
+        if (claimed > 1) {
+            log.info("Judging a batch of {} submissions to problem {}", claimed, batch.problemId());
+        }
+
+        TestDataStore.Pin testData = null;
+        try {
+            testData = testDataStore.pin(batch.problemId(), batch.testCases());
+        } catch (IOException e) {
+            // Each submission then pins the inputs itself and reports the failure
+            log.warn("Failed to pin test data of problem {}: {}", batch.problemId(), e.getMessage());
+        }
+
+        try {
+            while (!pending.isEmpty() && running) {
+                JudgeQueue.ClaimedJob job = pending.poll();
+                if (!judge(job)) {
+                    // Interrupted before a verdict, the job goes back to the queue with the rest
+                    pending.addFirst(job);
+                    break;
+                }
+                // Submissions that arrived meanwhile join while the batch is still open
+                long openMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt);
+                if (pending.isEmpty() && claimed < maxBatchSize && openMs < maxBatchDelayMs && running) {
+                    List<JudgeQueue.ClaimedJob> more = judgeQueue.claimMore(batch, workerId, maxBatchSize - claimed);
+                    claimed += more.size();
+                    pending.addAll(more);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to extend batch for problem {}: {}", batch.problemId(), e.getMessage());
+        } finally {
+            if (testData != null) {
+                testData.close();
+            }
+            if (!pending.isEmpty()) {
+                releaseUnjudged(pending);
+            }
+        }
+    }
+
+    /**
+     * Put claimed jobs that were not judged back in the queue, so they need not wait for the lease to expire
+     */
+    private void releaseUnjudged(Deque<JudgeQueue.ClaimedJob> jobs) {
+        // Cleared for the release transaction, an interrupted thread may not get a connection
+        boolean interrupted = Thread.interrupted();
+        try {
+            judgeQueue.release(List.copyOf(jobs));
+            log.info("Returned {} unjudged jobs to the queue", jobs.size());
+        } catch (Exception e) {
+            log.warn("Failed to release {} unjudged jobs, they are retried once their claims expire: {}",
+                jobs.size(), e.getMessage());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Judge a job and write its verdict
+     * @return false when judging was interrupted, typically by stop(), and the job has no verdict
+     */
+    private boolean judge(JudgeQueue.ClaimedJob job) {
+        Submission submission = job.submission();
+        log.info("Judging submission {}", submission.getId());
+        long startedAt = System.nanoTime();
+
+        CodeExecutionService.ExecutionResult result;
+        try {
+            result = codeExecutionService.executeCode(submission, job.testCases());
+        } catch (CodeExecutionService.JudgingInterruptedException e) {
+            log.info("Judging of submission {} was interrupted, returning it to the queue", submission.getId());
+            return false;
+        } catch (Exception e) {
+            log.error("Error processing submission {}: {}", submission.getId(), e.getMessage());
+            result = new CodeExecutionService.ExecutionResult(
+                Submission.SubmissionStatus.RUNTIME_ERROR,
+                "System error: " + e.getMessage(),
+                0, 0, 0, 0
+            );
+        }
+
+        try {
+            if (judgeQueue.complete(job, result)) {
+                log.info("Submission {} processed with status: {}", submission.getId(), result.status());
+            }
+            judgeThroughput.recordCompletion(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (Exception e) {
+            // The claim expires and another worker judges the submission again
+            log.error("Failed to store verdict of submission {}: {}", submission.getId(), e.getMessage());
+        }
+
+        try {
+            testCaseOrdering.flushIfDue();
+        } catch (Exception e) {
+            log.warn("Failed to store test case outcomes: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * @return Executor starting a virtual thread per task, null before Java 21. Looked up
+     *         reflectively so the code still compiles for Java 17.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
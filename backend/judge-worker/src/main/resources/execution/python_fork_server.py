@@ -0,0 +1,143 @@
+"""Fork server behind PythonForkServerPool.
+
+Reads one tab separated command per line from stdin:
+  RUN sourceFile inputFile outputFile errorFile cpuLimitMs wallLimitMs addressSpaceBytes outputLimitBytes
+and answers with exactly one line on stdout, ending in wall time, CPU time and peak RSS:
+  OK ms cpuMs bytes | EXIT status ms cpuMs bytes | TIMEOUT ms cpuMs bytes
+
+The interpreter and the modules solutions commonly use are loaded once. Every test case runs in
+a child forked from this process with its stdio redirected to the given files, executing the
+solution's code object compiled here, so sibling test cases share one compilation. CPU time,
+address space and output size are limited with rlimits; the wall-clock limit is enforced here.
+"""
+
+import builtins
+import os
+import resource
+import signal
+import sys
+import time
+import traceback
+
+# Preloaded for solutions, children inherit them already imported
+import bisect, collections, decimal, fractions, functools, heapq, io, itertools, math, random, re, string, typing
+
+CODE_CACHE_SIZE = 16
+
+code_cache = {}
+
+
+def load_code(source_file):
+    key = (source_file, os.stat(source_file).st_mtime_ns)
+    code = code_cache.get(key)
+    if code is None:
+        with open(source_file, 'rb') as source:
+            code = compile(source.read(), source_file, 'exec')
+        if len(code_cache) >= CODE_CACHE_SIZE:
+            code_cache.pop(next(iter(code_cache)))
+        code_cache[key] = code
+    return code
+
+
+def run_child(code, source_file, input_file, output_file, error_file, cpu_limit_ms, address_space, output_limit):
+    status = 1
+    try:
+        cpu_limit_s = -(-cpu_limit_ms // 1000)
+        # SIGXCPU at the limit, SIGKILL a second later if the solution ignores it
+        resource.setrlimit(resource.RLIMIT_CPU, (cpu_limit_s, cpu_limit_s + 1))
+        resource.setrlimit(resource.RLIMIT_AS, (address_space, address_space))
+        # One byte over the limit, so the Java side can tell a full output from an exceeded one
+        resource.setrlimit(resource.RLIMIT_FSIZE, (output_limit + 1, output_limit + 1))
+        signal.signal(signal.SIGXFSZ, signal.SIG_DFL)
+
+        for fd, path, flags in ((0, input_file, os.O_RDONLY),
+                                (1, output_file, os.O_WRONLY | os.O_TRUNC),
+                                (2, error_file, os.O_WRONLY | os.O_TRUNC)):
+            target = os.open(path, flags)
+            os.dup2(target, fd)
+            os.close(target)
+        # Fresh stream objects, the inherited ones may still buffer commands meant for the server
+        sys.stdin = sys.__stdin__ = open(0, 'r', closefd=False)
+        sys.stdout = sys.__stdout__ = open(1, 'w', closefd=False)
+        sys.stderr = sys.__stderr__ = open(2, 'w', closefd=False)
+        sys.argv = [source_file]
+        # Otherwise every child would continue from the parent's random state
+        random.seed()
+
+        exec(code, {'__name__': '__main__', '__file__': source_file, '__builtins__': builtins})
+        status = 0
+    except SystemExit as e:
+        if e.code is None:
+            status = 0
+        elif isinstance(e.code, int):
+            status = e.code & 0xff
+        else:
+            print(e.code, file=sys.stderr)
+            status = 1
+    except BaseException:
+        traceback.print_exc()
+        status = 1
+    finally:
+        try:
+            sys.stdout.flush()
+            sys.stderr.flush()
+        except BaseException:
+            status = status or 1
+        os._exit(status)
+
+
+def run(source_file, input_file, output_file, error_file, cpu_limit_ms, wall_limit_ms, address_space, output_limit):
+    try:
+        code = load_code(source_file)
+    except SyntaxError:
+        with open(error_file, 'w') as err:
+            traceback.print_exc(limit=0, file=err)
+        return 'EXIT 1 0 0 0'
+
+    start = time.monotonic()
+    pid = os.fork()
+    if pid == 0:
+        run_child(code, source_file, input_file, output_file, error_file, cpu_limit_ms, address_space, output_limit)
+
+    wall_exceeded = []
+
+    def on_wall_limit(signum, frame):
+        wall_exceeded.append(True)
+        try:
+            os.kill(pid, signal.SIGKILL)
+        except ProcessLookupError:
+            pass
+
+    signal.signal(signal.SIGALRM, on_wall_limit)
+    signal.setitimer(signal.ITIMER_REAL, wall_limit_ms / 1000)
+    try:
+        _, wait_status, usage = os.wait4(pid, 0)
+    finally:
+        signal.setitimer(signal.ITIMER_REAL, 0)
+
+    elapsed_ms = int((time.monotonic() - start) * 1000)
+    cpu_ms = int((usage.ru_utime + usage.ru_stime) * 1000)
+    figures = '%d %d %d' % (elapsed_ms, cpu_ms, usage.ru_maxrss * 1024)
+
+    killed_by = os.WTERMSIG(wait_status) if os.WIFSIGNALED(wait_status) else None
+    if wall_exceeded or cpu_ms > cpu_limit_ms or killed_by == signal.SIGXCPU:
+        return 'TIMEOUT ' + figures
+    # Mirror the exit status the JVM reports for a process killed by a signal
+    status = 128 + killed_by if killed_by is not None else os.WEXITSTATUS(wait_status)
+    return ('OK ' if status == 0 else 'EXIT %d ' % status) + figures
+
+
+def main():
+    for line in sys.stdin:
+        parts = line.rstrip('\n').split('\t')
+        if len(parts) != 9 or parts[0] != 'RUN':
+            reply = 'EXIT 1 0 0 0'
+        else:
+            reply = run(parts[1], parts[2], parts[3], parts[4],
+                        int(parts[5]), int(parts[6]), int(parts[7]), int(parts[8]))
+        sys.stdout.write(reply + '\n')
+        sys.stdout.flush()
+
+
+if __name__ == '__main__':
+    main()
@@ -0,0 +1,117 @@
+package ai.shodh.codingcontest.service.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs solutions compiled by javac on a real worker JVM, so the exit call rewriting is checked
+ * against the bytecode javac actually emits
+ */
+class JavaWorkerMainTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Process worker;
+    private BufferedWriter commands;
+    private BufferedReader replies;
+    private int runs;
+
+    @BeforeEach
+    void startWorker() throws Exception {
+        Path classpath = Path.of(JavaWorkerMain.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        worker = new ProcessBuilder("java", "-Xmx64m", "-cp", classpath.toString(), JavaWorkerMain.class.getName())
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        commands = new BufferedWriter(new OutputStreamWriter(worker.getOutputStream(), StandardCharsets.UTF_8));
+        replies = new BufferedReader(new InputStreamReader(worker.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void stopWorker() {
+        worker.destroyForcibly();
+    }
+
+    @Test
+    void systemExitEndsTheRunNotTheWorker() throws Exception {
+        assertThat(run("System.out.println(\"before\"); System.exit(3);")).startsWith("EXIT 3 ");
+
+        // The same worker takes the next run
+        assertThat(run("System.out.println(\"next\");")).startsWith("OK ");
+        assertThat(worker.isAlive()).isTrue();
+    }
+
+    @Test
+    void exitWithZeroStatusIsAnOrdinaryEnd() throws Exception {
+        assertThat(run("System.exit(0);")).startsWith("OK ");
+    }
+
+    @Test
+    void runtimeExitAndHaltAreTrapped() throws Exception {
+        assertThat(run("Runtime.getRuntime().exit(4);")).startsWith("EXIT 4 ");
+        assertThat(run("Runtime.getRuntime().halt(5);")).startsWith("EXIT 5 ");
+    }
+
+    @Test
+    void exitInsideLambdaIsTrapped() throws Exception {
+        assertThat(run("Runnable quit = () -> System.exit(6); quit.run();")).startsWith("EXIT 6 ");
+    }
+
+    @Test
+    void exitInNestedClassIsTrapped() throws Exception {
+        String source = """
+            public class Solution {
+                static class Helper {
+                    static void quit() { Runtime.getRuntime().halt(7); }
+                }
+                public static void main(String[] args) { Helper.quit(); }
+            }
+            """;
+        assertThat(run(compile(source))).startsWith("EXIT 7 ");
+    }
+
+    @Test
+    void exitThroughReflectionIsNotTrapped() throws Exception {
+        // Looked up at run time, so the worker exits and the pool falls back to a JVM per run
+        String reply = run("System.class.getMethod(\"exit\", int.class).invoke(null, 8);");
+
+        assertThat(reply).isNull();
+        assertThat(worker.waitFor(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(worker.exitValue()).isEqualTo(8);
+    }
+
+    private String run(String mainBody) throws Exception {
+        return run(compile("public class Solution { public static void main(String[] args) throws Exception { "
+            + mainBody + " } }"));
+    }
+
+    private Path compile(String source) throws IOException {
+        Path classDir = Files.createDirectory(tempDir.resolve("solution" + runs++));
+        Path sourceFile = classDir.resolve("Solution.java");
+        Files.writeString(sourceFile, source);
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertThat(javac.run(null, null, null, "-d", classDir.toString(), sourceFile.toString())).isZero();
+        return classDir;
+    }
+
+    private String run(Path classDir) throws IOException {
+        Path input = Files.writeString(classDir.resolve("input.txt"), "");
+        commands.write(String.join("\t", "RUN", classDir.toString(), input.toString(),
+            classDir.resolve("output.txt").toString(), classDir.resolve("error.txt").toString(), "5000", "10000"));
+        commands.newLine();
+        commands.flush();
+        return replies.readLine();
+    }
+}
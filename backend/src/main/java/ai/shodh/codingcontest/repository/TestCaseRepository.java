@@ -1,12 +0,0 @@
-package ai.shodh.codingcontest.repository;
-
-import ai.shodh.codingcontest.model.TestCase;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
-
-import java.util.List;
-
-@Repository
-public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
-    List<TestCase> findByProblemIdOrderByIdAsc(Long problemId);
-}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import Editor from '@monaco-editor/react';
 import { submissionAPI } from '../services/api';
 import { Play, Clock, CheckCircle, XCircle, AlertCircle, Code, Send, Zap } from 'lucide-react';
@@ -12,7 +12,22 @@ const languageTemplates = {
 }`,
   python: `# ### CHANGE THIS ### - Implement your solution here
 
-`
+`,
+  cpp: `#include <bits/stdc++.h>
+using namespace std;
+
+int main() {
+    // ### CHANGE THIS ### - Implement your solution here
+    
+    return 0;
+}`,
+  c: `#include <stdio.h>
+
+int main(void) {
+    // ### CHANGE THIS ### - Implement your solution here
+    
+    return 0;
+}`
 };
 
 const statusIcons = {
@@ -22,6 +37,7 @@ const statusIcons = {
   WRONG_ANSWER: <XCircle className="w-4 h-4 text-red-500" />,
   TIME_LIMIT_EXCEEDED: <AlertCircle className="w-4 h-4 text-orange-500" />,
   MEMORY_LIMIT_EXCEEDED: <AlertCircle className="w-4 h-4 text-orange-500" />,
+  OUTPUT_LIMIT_EXCEEDED: <AlertCircle className="w-4 h-4 text-orange-500" />,
   RUNTIME_ERROR: <XCircle className="w-4 h-4 text-red-500" />,
   COMPILATION_ERROR: <XCircle className="w-4 h-4 text-red-500" />
 };
@@ -33,16 +49,18 @@ const statusColors = {
   WRONG_ANSWER: 'text-red-600 bg-red-50 border-red-200',
   TIME_LIMIT_EXCEEDED: 'text-orange-600 bg-orange-50 border-orange-200',
   MEMORY_LIMIT_EXCEEDED: 'text-orange-600 bg-orange-50 border-orange-200',
+  OUTPUT_LIMIT_EXCEEDED: 'text-orange-600 bg-orange-50 border-orange-200',
   RUNTIME_ERROR: 'text-red-600 bg-red-50 border-red-200',
   COMPILATION_ERROR: 'text-red-600 bg-red-50 border-red-200'
 };
 
-function CodeEditor({ problem, contestId, username }) {
+function CodeEditor({ problem, contestId, username, onVerdict }) {
   const [code, setCode] = useState('');
   const [language, setLanguage] = useState('java');
   const [submitting, setSubmitting] = useState(false);
   const [submission, setSubmission] = useState(null);
   const [pollingInterval, setPollingInterval] = useState(null);
+  const stopWatching = useRef(null);
 
   useEffect(() => {
     // Set default template when language changes
@@ -58,7 +76,12 @@ function CodeEditor({ problem, contestId, username }) {
     };
   }, [pollingInterval]);
 
-  const handleSubmit = async () => {
+  useEffect(() => {
+    // Close the status stream on unmount
+    return () => stopWatching.current?.();
+  }, []);
+
+  const handleSubmit = async (sampleOnly = false) => {
     if (!code.trim()) {
       alert('Please write some code before submitting');
       return;
@@ -72,21 +95,61 @@ function CodeEditor({ problem, contestId, username }) {
         problemId: problem.id,
         username: username,
         code: code,
-        language: language
+        language: language,
+        sampleOnly: sampleOnly
       });
 
       const submissionId = response.data.submissionId;
       
-      // Start polling for submission status
-      startPolling(submissionId);
+      // Follow the submission status as the judge pushes it
+      startWatching(submissionId);
       
     } catch (error) {
       console.error('Submission error:', error);
-      alert('Failed to submit code. Please try again.');
+      const status = error.response?.status;
+      if (status === 429 || status === 503) {
+        // The judge is shedding load, the server says when to come back
+        const retryAfter = error.response.headers['retry-after'] || error.response.data?.retryAfterSeconds;
+        alert(`${error.response.data?.error || 'The judge is busy.'} Try again in ${retryAfter} seconds.`);
+      } else {
+        alert('Failed to submit code. Please try again.');
+      }
       setSubmitting(false);
     }
   };
 
+  const isFinished = (status) => !['PENDING', 'RUNNING'].includes(status);
+
+  const startWatching = (submissionId) => {
+    stopWatching.current?.();
+    if (typeof EventSource === 'undefined') {
+      startPolling(submissionId);
+      return;
+    }
+
+    let finished = false;
+    stopWatching.current = submissionAPI.watchSubmission(
+      submissionId,
+      (submissionData) => {
+        setSubmission(submissionData);
+        if (isFinished(submissionData.status)) {
+          finished = true;
+          stopWatching.current();
+          stopWatching.current = null;
+          setSubmitting(false);
+          onVerdict?.(submissionData);
+        }
+      },
+      () => {
+        // Stream dropped before the verdict, fall back to polling
+        stopWatching.current = null;
+        if (!finished) {
+          startPolling(submissionId);
+        }
+      }
+    );
+  };
+
   const startPolling = (submissionId) => {
     // Clear any existing polling
     if (pollingInterval) {
@@ -102,10 +165,11 @@ function CodeEditor({ problem, contestId, username }) {
         setSubmission(submissionData);
         
         // Stop polling if submission is completed
-        if (!['PENDING', 'RUNNING'].includes(submissionData.status)) {
+        if (isFinished(submissionData.status)) {
           clearInterval(interval);
           setPollingInterval(null);
           setSubmitting(false);
+          onVerdict?.(submissionData);
         }
       } catch (error) {
         console.error('Polling error:', error);
@@ -126,6 +190,7 @@ function CodeEditor({ problem, contestId, username }) {
       case 'WRONG_ANSWER': return 'Wrong answer on test case';
       case 'TIME_LIMIT_EXCEEDED': return 'Time limit exceeded';
       case 'MEMORY_LIMIT_EXCEEDED': return 'Memory limit exceeded';
+      case 'OUTPUT_LIMIT_EXCEEDED': return 'Output limit exceeded';
       case 'RUNTIME_ERROR': return 'Runtime error occurred';
       case 'COMPILATION_ERROR': return 'Code failed to compile';
       default: return 'Unknown status';
@@ -150,6 +215,8 @@ function CodeEditor({ problem, contestId, username }) {
               >
                 <option value="java">☕ Java</option>
                 <option value="python">🐍 Python</option>
+                <option value="cpp">⚙️ C++</option>
+                <option value="c">🔧 C</option>
               </select>
               <div className="absolute inset-y-0 right-0 flex items-center px-2 pointer-events-none">
                 <svg className="w-4 h-4 text-gray-400" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -159,7 +226,16 @@ function CodeEditor({ problem, contestId, username }) {
             </div>
             
             <button
-              onClick={handleSubmit}
+              onClick={() => handleSubmit(true)}
+              disabled={submitting}
+              className="bg-white border-2 border-blue-500 text-blue-600 hover:bg-blue-50 disabled:border-gray-300 disabled:text-gray-400 font-semibold px-6 py-2 rounded-xl transition-all duration-200 flex items-center space-x-2 shadow-lg"
+            >
+              <Play className="w-4 h-4" />
+              <span>Run Samples</span>
+            </button>
+
+            <button
+              onClick={() => handleSubmit(false)}
               disabled={submitting}
               className="bg-gradient-to-r from-green-500 to-blue-600 hover:from-green-600 hover:to-blue-700 disabled:from-gray-400 disabled:to-gray-500 text-white font-semibold px-6 py-2 rounded-xl transition-all duration-200 transform hover:scale-105 disabled:hover:scale-100 flex items-center space-x-2 shadow-lg"
             >
@@ -214,7 +290,11 @@ function CodeEditor({ problem, contestId, username }) {
                 <span className="font-semibold text-lg">{getStatusMessage(submission.status)}</span>
               </div>
               
-              {submission.score !== undefined && (
+              {submission.sampleOnly ? (
+                <div className="bg-white px-4 py-2 rounded-xl shadow-sm">
+                  <span className="text-sm font-bold text-gray-600">Sample run, not scored</span>
+                </div>
+              ) : submission.score !== undefined && (
                 <div className="bg-white px-4 py-2 rounded-xl shadow-sm">
                   <span className="text-sm font-bold text-gray-600">Score: </span>
                   <span className="text-lg font-bold text-blue-600">{submission.score}</span>
@@ -232,6 +312,12 @@ function CodeEditor({ problem, contestId, username }) {
                     <span className="font-medium">Time: {submission.executionTimeMs}ms</span>
                   </div>
                 )}
+                {submission.cpuTimeMs != null && (
+                  <div className="flex items-center space-x-2">
+                    <Clock className="w-4 h-4 text-green-500" />
+                    <span className="font-medium">CPU: {submission.cpuTimeMs}ms</span>
+                  </div>
+                )}
                 {submission.memoryUsedMb && (
                   <div className="flex items-center space-x-2">
                     <Zap className="w-4 h-4 text-purple-500" />
@@ -4,7 +4,7 @@ import { contestAPI } from '../services/api';
 import ProblemView from './ProblemView';
 import CodeEditor from './CodeEditor';
 import Leaderboard from './Leaderboard';
-import { Clock, Trophy, User, Code, Target, Zap, ArrowLeft } from 'lucide-react';
+import { Clock, Trophy, User, Code, Target, Zap, ArrowLeft, CheckCircle } from 'lucide-react';
 
 function ContestPage() {
   const { contestId } = useParams();
@@ -16,16 +16,29 @@ function ContestPage() {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [activeTab, setActiveTab] = useState('problems');
+  // The user's results keyed by problem id
+  const [problemStats, setProblemStats] = useState({});
 
   useEffect(() => {
     fetchContest();
   }, [contestId]);
 
+  const fetchProblemStats = async () => {
+    if (!username) return;
+    try {
+      const response = await contestAPI.getUserProblemStats(contestId, username);
+      setProblemStats(Object.fromEntries(response.data.map((stats) => [stats.problemId, stats])));
+    } catch (err) {
+      console.error('Problem stats fetch error:', err);
+    }
+  };
+
   const fetchContest = async () => {
     try {
       setLoading(true);
       const response = await contestAPI.getContest(contestId);
       setContest(response.data);
+      fetchProblemStats();
       
       // Select first problem by default
       if (response.data.problems && response.data.problems.length > 0) {
@@ -202,13 +215,28 @@ function ContestPage() {
                           }`}>
                             {String.fromCharCode(65 + index)}
                           </div>
-                          <span className="font-semibold text-gray-900 text-sm sm:text-base truncate">{problem.title}</span>
+                          <div className="min-w-0">
+                            <span className="block font-semibold text-gray-900 text-sm sm:text-base truncate">{problem.title}</span>
+                            {problem.solvedBy != null && (
+                              <span className="block text-xs text-gray-500">
+                                Solved by {problem.solvedBy} of {problem.attemptedBy}
+                              </span>
+                            )}
+                          </div>
                         </div>
                         <div className="flex items-center space-x-2 sm:space-x-3 flex-shrink-0 ml-2">
                           <span className="text-xs sm:text-sm font-bold text-green-600 bg-green-100 px-2 py-1 sm:px-3 rounded-full whitespace-nowrap">
                             {problem.points} pts
                           </span>
-                          <Trophy className="w-4 h-4 sm:w-5 sm:h-5 text-yellow-500" />
+                          {problemStats[problem.id]?.solved ? (
+                            <CheckCircle className="w-4 h-4 sm:w-5 sm:h-5 text-green-600" />
+                          ) : problemStats[problem.id] ? (
+                            <span className="text-xs text-gray-500 whitespace-nowrap">
+                              {problemStats[problem.id].attempts} tries
+                            </span>
+                          ) : (
+                            <Trophy className="w-4 h-4 sm:w-5 sm:h-5 text-yellow-500" />
+                          )}
                         </div>
                       </div>
                     </button>
@@ -223,6 +251,7 @@ function ContestPage() {
                     problem={selectedProblem}
                     contestId={contestId}
                     username={username}
+                    onVerdict={fetchProblemStats}
                   />
                 </div>
               )}
@@ -245,7 +274,7 @@ function ContestPage() {
           </div>
         ) : (
           <div className="animate-fade-in">
-            <Leaderboard contestId={contestId} />
+            <Leaderboard contestId={contestId} username={username} />
           </div>
         )}
       </div>
@@ -1,9 +1,16 @@
 import React, { useState, useEffect } from 'react';
 import { contestAPI } from '../services/api';
-import { Trophy, Medal, Award, RefreshCw, Crown, Star, Zap } from 'lucide-react';
+import { Trophy, Medal, Award, RefreshCw, Crown, Star, Zap, Snowflake } from 'lucide-react';
 
-function Leaderboard({ contestId }) {
+// Rows shown from the top, and rows shown above and below the current user when they rank lower
+const TOP_ROWS = 50;
+const NEIGHBOUR_ROWS = 2;
+
+function Leaderboard({ contestId, username }) {
   const [leaderboard, setLeaderboard] = useState([]);
+  const [ownRows, setOwnRows] = useState([]);
+  const [totalEntries, setTotalEntries] = useState(0);
+  const [frozen, setFrozen] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [lastUpdated, setLastUpdated] = useState(null);
@@ -20,8 +27,17 @@ function Leaderboard({ contestId }) {
   const fetchLeaderboard = async () => {
     try {
       setLoading(true);
-      const response = await contestAPI.getLeaderboard(contestId);
-      setLeaderboard(response.data);
+      const [top, around] = await Promise.all([
+        contestAPI.getLeaderboardTop(contestId, TOP_ROWS),
+        // Users without a verdict yet have no rank
+        username
+          ? contestAPI.getLeaderboardAround(contestId, username, NEIGHBOUR_ROWS).catch(() => null)
+          : Promise.resolve(null)
+      ]);
+      setLeaderboard(top.data.entries);
+      setTotalEntries(top.data.totalEntries);
+      setFrozen(Boolean(top.data.frozen));
+      setOwnRows((around?.data.entries || []).filter((entry) => entry.rank > TOP_ROWS));
       setLastUpdated(new Date());
       setError('');
     } catch (err) {
@@ -58,6 +74,45 @@ function Leaderboard({ contestId }) {
     }
   };
 
+  const renderRow = (entry) => (
+    <div
+      key={entry.username}
+      className={`p-4 rounded-lg border transition-all hover:shadow-md ${getRankStyle(entry.rank)} ${entry.username === username ? 'ring-2 ring-blue-400' : ''}`}
+    >
+      <div className="flex items-center justify-between">
+        <div className="flex items-center space-x-4">
+          <div className="flex items-center justify-center w-8 h-8">
+            {getRankIcon(entry.rank)}
+          </div>
+
+          <div>
+            <h3 className="font-semibold text-gray-900">{entry.username}</h3>
+            <div className="flex items-center space-x-4 text-sm text-gray-600">
+              <span>{entry.solvedProblems} problems solved</span>
+              {entry.lastSubmission && (
+                <span>
+                  Last submission: {new Date(entry.lastSubmission).toLocaleTimeString()}
+                </span>
+              )}
+            </div>
+          </div>
+        </div>
+
+        <div className="text-right">
+          <div className="text-2xl font-bold text-gray-900">
+            {entry.totalScore}
+          </div>
+          {/* ICPC contests rank by problems solved, then penalty minutes */}
+          {entry.penalty != null ? (
+            <div className="text-sm text-gray-500">solved · {entry.penalty} min penalty</div>
+          ) : (
+            <div className="text-sm text-gray-500">points</div>
+          )}
+        </div>
+      </div>
+    </div>
+  );
+
   if (loading && leaderboard.length === 0) {
     return (
       <div className="bg-white/80 backdrop-blur-lg rounded-2xl shadow-xl border border-white/20 p-8 animate-fade-in">
@@ -85,8 +140,14 @@ function Leaderboard({ contestId }) {
             </div>
             <div>
               <h2 className="text-2xl font-bold text-gray-900 bg-gradient-to-r from-blue-600 to-purple-600 bg-clip-text text-transparent">
-                Live Leaderboard
+                {frozen ? 'Leaderboard' : 'Live Leaderboard'}
               </h2>
+              {frozen && (
+                <p className="text-sm text-blue-600 mt-1 flex items-center">
+                  <Snowflake className="w-4 h-4 mr-1" />
+                  Frozen: submissions made since the freeze are revealed when the contest ends
+                </p>
+              )}
               {lastUpdated && (
                 <p className="text-sm text-gray-500 mt-1 flex items-center">
                   <Zap className="w-4 h-4 mr-1" />
@@ -120,39 +181,13 @@ function Leaderboard({ contestId }) {
           </div>
         ) : (
           <div className="space-y-3">
-            {leaderboard.map((entry, index) => (
-              <div
-                key={entry.username}
-                className={`p-4 rounded-lg border transition-all hover:shadow-md ${getRankStyle(entry.rank)}`}
-              >
-                <div className="flex items-center justify-between">
-                  <div className="flex items-center space-x-4">
-                    <div className="flex items-center justify-center w-8 h-8">
-                      {getRankIcon(entry.rank)}
-                    </div>
-                    
-                    <div>
-                      <h3 className="font-semibold text-gray-900">{entry.username}</h3>
-                      <div className="flex items-center space-x-4 text-sm text-gray-600">
-                        <span>{entry.solvedProblems} problems solved</span>
-                        {entry.lastSubmission && (
-                          <span>
-                            Last submission: {new Date(entry.lastSubmission).toLocaleTimeString()}
-                          </span>
-                        )}
-                      </div>
-                    </div>
-                  </div>
-                  
-                  <div className="text-right">
-                    <div className="text-2xl font-bold text-gray-900">
-                      {entry.totalScore}
-                    </div>
-                    <div className="text-sm text-gray-500">points</div>
-                  </div>
-                </div>
-              </div>
-            ))}
+            {leaderboard.map(renderRow)}
+            {ownRows.length > 0 && (
+              <>
+                <div className="text-center text-gray-400 py-1">⋯</div>
+                {ownRows.map(renderRow)}
+              </>
+            )}
           </div>
         )}
       </div>
@@ -161,7 +196,7 @@ function Leaderboard({ contestId }) {
       {leaderboard.length > 0 && (
         <div className="px-6 py-4 border-t border-gray-200 bg-gray-50">
           <div className="flex justify-between items-center text-sm text-gray-600">
-            <span>{leaderboard.length} participants</span>
+            <span>{totalEntries} participants</span>
             <span>Updates automatically every 30 seconds</span>
           </div>
         </div>
@@ -13,6 +13,12 @@ const api = axios.create({
 export const contestAPI = {
   getContest: (contestId) => api.get(`/contests/${contestId}`),
   getLeaderboard: (contestId) => api.get(`/contests/${contestId}/leaderboard`),
+  getLeaderboardRanks: (contestId, from, to) => api.get(`/contests/${contestId}/leaderboard/ranks`, { params: { from, to } }),
+  getLeaderboardTop: (contestId, k) => api.get(`/contests/${contestId}/leaderboard/top`, { params: { k } }),
+  getLeaderboardAround: (contestId, username, neighbours) =>
+    api.get(`/contests/${contestId}/leaderboard/users/${encodeURIComponent(username)}`, { params: { neighbours } }),
+  getUserProblemStats: (contestId, username) =>
+    api.get(`/contests/${contestId}/users/${encodeURIComponent(username)}/problems`),
   getActiveContests: () => api.get('/contests'),
 };
 
@@ -20,6 +26,16 @@ export const contestAPI = {
 export const submissionAPI = {
   submitCode: (submission) => api.post('/submissions', submission),
   getSubmission: (submissionId) => api.get(`/submissions/${submissionId}`),
+  // Server-Sent Events with each status change of the submission; returns a function that closes the stream
+  watchSubmission: (submissionId, onStatus, onError) => {
+    const source = new EventSource(`${API_BASE_URL}/submissions/events?ids=${submissionId}`);
+    source.addEventListener('status', (event) => onStatus(JSON.parse(event.data)));
+    source.onerror = () => {
+      source.close();
+      onError();
+    };
+    return () => source.close();
+  },
 };
 
 export default api;